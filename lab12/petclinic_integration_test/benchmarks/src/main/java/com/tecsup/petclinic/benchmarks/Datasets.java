@@ -0,0 +1,56 @@
+package com.tecsup.petclinic.benchmarks;
+
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.dtos.SpecialtyDTO;
+import com.tecsup.petclinic.dtos.VetDTO;
+import com.tecsup.petclinic.entities.Pet;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deterministic rows for the benchmarks, shaped like the sample data:
+ * 6 pet types, 10 owners, birth dates over 20 years
+ */
+final class Datasets {
+
+    static final int TYPES = 6;
+    static final int OWNERS = 10;
+    static final int DAYS = 20 * 365;
+
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(2000, 1, 1);
+
+    private Datasets() {
+    }
+
+    static LocalDate birthDate(int i) {
+        return FIRST_BIRTH_DATE.plusDays(i % DAYS);
+    }
+
+    static List<Pet> pets(int rows) {
+        List<Pet> pets = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            pets.add(new Pet(i + 1, "Pet" + i, 1 + i % TYPES, 1 + i % OWNERS, birthDate(i)));
+        }
+        return pets;
+    }
+
+    static List<PetDTO> petDTOs(int rows) {
+        List<PetDTO> pets = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            pets.add(new PetDTO(i + 1, "Pet" + i, 1 + i % TYPES, 1 + i % OWNERS, birthDate(i).toString()));
+        }
+        return pets;
+    }
+
+    static List<VetDTO> vetDTOs(int rows) {
+        Set<SpecialtyDTO> specialties = Set.of(new SpecialtyDTO(1, "radiology"), new SpecialtyDTO(2, "surgery"));
+        List<VetDTO> vets = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            vets.add(new VetDTO(i + 1, "First" + i, "Last" + i, 0, i % 2 == 0 ? specialties : Set.of()));
+        }
+        return vets;
+    }
+}
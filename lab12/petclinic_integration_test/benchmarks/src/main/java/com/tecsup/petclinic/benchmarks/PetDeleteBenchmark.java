@@ -0,0 +1,86 @@
+package com.tecsup.petclinic.benchmarks;
+
+import com.tecsup.petclinic.PetClinicApplication;
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.dtos.VisitDTO;
+import com.tecsup.petclinic.exceptions.PetNotFoundException;
+import com.tecsup.petclinic.services.PetService;
+import com.tecsup.petclinic.services.VisitService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of deleting a pet that has {@code visits} visits, against the
+ * embedded H2 profile. The delete is one statement, the visits go with the
+ * database cascade (ON DELETE CASCADE), so this measures the cascade cost.
+ * Each iteration deletes one pet created with its visits before the timer
+ * starts, hence single shot.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 10)
+@Measurement(iterations = 30)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PetDeleteBenchmark {
+
+    @Param({"0", "10", "100", "1000", "5000"})
+    public int visits;
+
+    private ConfigurableApplicationContext context;
+    private PetService petService;
+    private VisitService visitService;
+    private Integer petId;
+
+    @Setup
+    public void setUp() {
+        // DevTools only reads this as a system property
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(PetClinicApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("h2")
+                // No per-statement logging, file appender or span export while measuring.
+                // Passed as arguments: builder properties are defaults that the profile yml overrides
+                .run("--spring.jpa.show-sql=false", "--logging.file.name=", "--logging.level.root=WARN",
+                        "--management.tracing.enabled=false");
+        petService = context.getBean(PetService.class);
+        visitService = context.getBean(VisitService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void createPetWithVisits() {
+        petId = petService.create(PetDTO.builder()
+                .name("Visited" + visits)
+                .typeId(1)
+                .ownerId(1)
+                .birthDate("2015-01-01")
+                .build()).getId();
+        visitService.ingest(newVisits(petId, visits));
+    }
+
+    @Benchmark
+    public void delete() throws PetNotFoundException {
+        petService.delete(petId);
+    }
+
+    static List<VisitDTO> newVisits(Integer petId, int count) {
+        List<VisitDTO> visits = new ArrayList<>(count);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < count; i++) {
+            visits.add(new VisitDTO(null, date.plusDays(i % 365).toString(), "checkup " + i, petId));
+        }
+        return visits;
+    }
+}
@@ -0,0 +1,99 @@
+package com.tecsup.petclinic.benchmarks;
+
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.entities.Pet;
+import com.tecsup.petclinic.mapper.PetMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PetMapper list mapping, and its date handling against the
+ * SimpleDateFormat-per-call version it replaced. Each operation maps
+ * {@code rows} pets: gc.alloc.rate.norm divided by rows is the allocation
+ * per mapped row.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PetMapperBenchmark {
+
+    private static final String PATTERN = "yyyy-MM-dd";
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int rows;
+
+    private final PetMapper petMapper = PetMapper.INSTANCE;
+
+    private List<Pet> pets;
+    private List<PetDTO> petDTOs;
+    private List<LocalDate> localDates;
+    private List<Date> legacyDates;
+    private List<String> strings;
+
+    @Setup
+    public void setUp() {
+        pets = Datasets.pets(rows);
+        petDTOs = Datasets.petDTOs(rows);
+        localDates = new ArrayList<>(rows);
+        legacyDates = new ArrayList<>(rows);
+        strings = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDate date = Datasets.birthDate(i);
+            localDates.add(date);
+            legacyDates.add(Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+            strings.add(date.toString());
+        }
+    }
+
+    @Benchmark
+    public void dateToString(Blackhole bh) {
+        for (LocalDate date : localDates) {
+            bh.consume(petMapper.dateToString(date));
+        }
+    }
+
+    // What dateToString did before: a new SimpleDateFormat per row
+    @Benchmark
+    public void legacyDateToString(Blackhole bh) {
+        for (Date date : legacyDates) {
+            bh.consume(new SimpleDateFormat(PATTERN).format(date));
+        }
+    }
+
+    @Benchmark
+    public void stringToDate(Blackhole bh) {
+        for (String value : strings) {
+            bh.consume(petMapper.stringToDate(value));
+        }
+    }
+
+    // What stringToDate did before, minus the System.out line it printed per row
+    @Benchmark
+    public void legacyStringToDate(Blackhole bh) throws ParseException {
+        for (String value : strings) {
+            bh.consume(new SimpleDateFormat(PATTERN).parse(value));
+        }
+    }
+
+    @Benchmark
+    public List<PetDTO> mapToDtoList() {
+        return petMapper.mapToDtoList(pets);
+    }
+
+    @Benchmark
+    public List<Pet> mapToEntityList() {
+        return petMapper.mapToEntityList(petDTOs);
+    }
+}
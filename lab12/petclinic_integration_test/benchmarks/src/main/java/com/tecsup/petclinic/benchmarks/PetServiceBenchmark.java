@@ -0,0 +1,100 @@
+package com.tecsup.petclinic.benchmarks;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.tecsup.petclinic.PetClinicApplication;
+import com.tecsup.petclinic.datagen.DataGenProperties;
+import com.tecsup.petclinic.datagen.DataGenerator;
+import com.tecsup.petclinic.dtos.PageDTO;
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
+import com.tecsup.petclinic.exceptions.PetNotFoundException;
+import com.tecsup.petclinic.services.PetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PetServiceImpl call chain (repository, mapper, DTO cache) against the
+ * embedded H2 profile, with {@code rows} extra pets from the data generator
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PetServiceBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private PetService petService;
+    private Cache<Integer, PetDTO> petCache;
+    private int firstId;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        // DevTools only reads this as a system property
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(PetClinicApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("h2")
+                // No per-statement logging, file appender or span export while measuring.
+                // Passed as arguments: builder properties are defaults that the profile yml overrides
+                .run("--spring.jpa.show-sql=false", "--logging.file.name=", "--logging.level.root=WARN",
+                        "--management.tracing.enabled=false");
+        petService = context.getBean(PetService.class);
+        petCache = context.getBean("petCache", Cache.class);
+
+        DataGenProperties dataGen = new DataGenProperties();
+        dataGen.setPets(rows);
+        dataGen.setOwners(Math.max(10, rows / 2));
+        dataGen.setVisits(0);
+        dataGen.setVets(0);
+        dataGen.setTypes(0);
+        dataGen.setSpecialties(0);
+        firstId = context.getBean(DataGenerator.class).generate(dataGen).get("pets").getFirst();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private int randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(rows);
+    }
+
+    // Cache hit once warmed up: lookup and copy of the cached DTO
+    @Benchmark
+    public PetDTO findByIdCached() throws PetNotFoundException {
+        return petService.findById(randomId());
+    }
+
+    // Cache miss every time: select, entity, mapping
+    @Benchmark
+    public PetDTO findByIdUncached() throws PetNotFoundException {
+        int id = randomId();
+        petCache.invalidate(id);
+        return petService.findById(id);
+    }
+
+    @Benchmark
+    public PageDTO<PetDTO> findFirstPage() throws InvalidCursorException {
+        return petService.findPage(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<PetDTO> findAll() {
+        return petService.findAll();
+    }
+}
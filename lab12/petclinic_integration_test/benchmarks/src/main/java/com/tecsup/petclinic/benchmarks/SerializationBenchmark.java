@@ -0,0 +1,55 @@
+package com.tecsup.petclinic.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.dtos.VetDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the list bodies of GET /pets and GET /vets,
+ * written to a discarding stream so only the serializer is measured
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int rows;
+
+    private ObjectWriter petsWriter;
+    private ObjectWriter vetsWriter;
+
+    private List<PetDTO> pets;
+    private List<VetDTO> vets;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper Spring Boot gives the controllers
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        petsWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, PetDTO.class));
+        vetsWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, VetDTO.class));
+        pets = Datasets.petDTOs(rows);
+        vets = Datasets.vetDTOs(rows);
+    }
+
+    @Benchmark
+    public void writePets() throws IOException {
+        petsWriter.writeValue(OutputStream.nullOutputStream(), pets);
+    }
+
+    @Benchmark
+    public void writeVets() throws IOException {
+        vetsWriter.writeValue(OutputStream.nullOutputStream(), vets);
+    }
+}
@@ -31,6 +31,7 @@ CREATE TABLE IF NOT EXISTS vets (
   email           VARCHAR(100),
   phone           VARCHAR(20),
   active          BOOLEAN DEFAULT TRUE,
+  version         INT NOT NULL DEFAULT 0,
   PRIMARY KEY (id),
   INDEX idx_vets_last_name (last_name)
 ) ENGINE=InnoDB;
@@ -96,6 +97,7 @@ CREATE TABLE IF NOT EXISTS owners (
   address       VARCHAR(255),
   city          VARCHAR(80),
   telephone     VARCHAR(20),
+  version       INT NOT NULL DEFAULT 0,
   PRIMARY KEY (id),
   INDEX idx_owners_last_name (last_name)
 ) ENGINE=InnoDB;
@@ -111,6 +113,7 @@ CREATE TABLE IF NOT EXISTS pets (
   type_id       INT(4) UNSIGNED NOT NULL,
   owner_id      INT(4) UNSIGNED NOT NULL,
   age           INT(4),
+  version       INT NOT NULL DEFAULT 0,
   PRIMARY KEY (id),
   INDEX idx_pets_name (name),
   FOREIGN KEY (owner_id) REFERENCES owners(id)
@@ -121,6 +124,19 @@ CREATE TABLE IF NOT EXISTS pets (
     ON UPDATE CASCADE
 ) ENGINE=InnoDB;
 
+-- ===============================================
+-- TABLE: pets_seq
+-- Description: Pooled id generator for pets. MySQL has no
+-- sequences, so Hibernate emulates pets_seq with this table
+-- (blocks of 50 ids per round-trip).
+-- Starts above the ids seeded by data-mysql.sql
+-- ===============================================
+CREATE TABLE IF NOT EXISTS pets_seq (
+  next_val      BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO pets_seq (next_val) VALUES (100);
+
 -- ===============================================
 -- TABLE: visits (Visitas Veterinarias)
 -- Description: Stores pet visit records
@@ -132,10 +148,11 @@ CREATE TABLE IF NOT EXISTS visits (
   visit_date      DATE NOT NULL,
   description     VARCHAR(255),
   cost            DECIMAL(10,2),
+  version         INT NOT NULL DEFAULT 0,
   PRIMARY KEY (id),
   INDEX idx_visits_pet_id (pet_id),
   INDEX idx_visits_vet_id (vet_id),
-  INDEX idx_visits_date (visit_date),
+  INDEX idx_visits_date (visit_date, id),
   FOREIGN KEY (pet_id) REFERENCES pets(id)
     ON DELETE CASCADE
     ON UPDATE CASCADE,
@@ -144,6 +161,18 @@ CREATE TABLE IF NOT EXISTS visits (
     ON UPDATE CASCADE
 ) ENGINE=InnoDB;
 
+-- ===============================================
+-- TABLE: visits_seq
+-- Description: Pooled id generator for visits, emulated with a
+-- table like pets_seq (blocks of 50 ids per round-trip).
+-- Starts above the ids seeded by data-mysql.sql
+-- ===============================================
+CREATE TABLE IF NOT EXISTS visits_seq (
+  next_val      BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO visits_seq (next_val) VALUES (100);
+
 -- ===============================================
 -- END OF SCHEMA CREATION
 -- ===============================================
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.tecsup.petclinic.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies (microseconds, from the time the request was due) and outcomes
+ * of one endpoint, recorded from the client threads
+ */
+final class EndpointStats {
+
+    static final int SIGNIFICANT_DIGITS = 3;
+
+    final String endpoint;
+    final LongAdder non2xx = new LongAdder();
+    final LongAdder failed = new LongAdder();
+
+    private final Histogram recording = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private volatile boolean closed;
+    private Histogram latency;
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @param micros Latency in microseconds
+     * @param status HTTP status, or -1 for a timeout or an I/O error
+     */
+    void record(long micros, int status) {
+        if (closed) {
+            // Completed after the run was closed, past its timeout: a failure, not a latency
+            failed.increment();
+            return;
+        }
+        recording.recordValue(Math.max(micros, 0));
+        if (status < 0) {
+            failed.increment();
+        } else if (status / 100 != 2) {
+            non2xx.increment();
+        }
+    }
+
+    /**
+     * Stops recording and keeps a copy of the latencies: iterating a histogram
+     * that late responses still write to fails with a ConcurrentModificationException
+     */
+    void close() {
+        closed = true;
+        latency = recording.copy();
+    }
+
+    /**
+     * @return Latencies recorded until {@link #close()}
+     */
+    Histogram latency() {
+        if (latency == null) {
+            throw new IllegalStateException("Still recording " + endpoint);
+        }
+        return latency;
+    }
+}
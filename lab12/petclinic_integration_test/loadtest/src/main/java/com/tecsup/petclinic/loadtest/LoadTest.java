@@ -0,0 +1,314 @@
+package com.tecsup.petclinic.loadtest;
+
+import com.tecsup.petclinic.PetClinicApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-loop load test of the REST API: requests are started at the configured
+ * arrival rate whatever the response times, and each latency is measured from
+ * the time its request was due, so a stalled server shows up in the
+ * percentiles instead of slowing the load down (no coordinated omission).
+ * See {@link LoadTestOptions} for the arguments.
+ */
+public final class LoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    // DELETE when this run has created nothing left to delete: measured as a 404
+    private static final long MISSING_ID = Integer.MAX_VALUE;
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final String threads;
+    private final HttpClient client;
+
+    private final List<Resource> resources;
+    private final List<Method> methods = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private final int totalWeight;
+
+    private final Map<String, EndpointStats> stats = new ConcurrentSkipListMap<>();
+    private final Map<Resource, Deque<Long>> createdIds = new EnumMap<>(Resource.class);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong maxInFlight = new AtomicLong();
+
+    /**
+     * @param threads request threads of the server, "platform" or "virtual", null when not booted here
+     */
+    LoadTest(LoadTestOptions options, String baseUrl, String threads, ExecutorService executor) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.threads = threads;
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(options.timeout)
+                .build();
+        this.resources = new ArrayList<>(options.resources);
+        for (Resource resource : resources) {
+            createdIds.put(resource, new ConcurrentLinkedDeque<>());
+        }
+        int sum = 0;
+        for (Map.Entry<Method, Integer> entry : options.mix.entrySet()) {
+            sum += entry.getValue();
+            methods.add(entry.getKey());
+            cumulativeWeights.add(sum);
+        }
+        this.totalWeight = sum;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        String report;
+        if (options.compare) {
+            // Same options, same seed: only the request threads of the server differ
+            LoadTest platform = run(options, false);
+            LoadTest virtual = run(options, true);
+            report = comparison(platform, virtual) + "\n" + platform.report() + "\n" + virtual.report();
+        } else {
+            report = run(options, options.virtual).report();
+        }
+
+        System.out.print(report);
+        if (options.report.getParent() != null) {
+            Files.createDirectories(options.report.getParent());
+        }
+        Files.writeString(options.report, report);
+    }
+
+    private static LoadTest run(LoadTestOptions options, boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = null;
+        String url = options.url;
+        String threads = null;
+        if (url == null) {
+            List<String> profiles = new ArrayList<>(List.of("h2"));
+            if (options.datagen) {
+                profiles.add("datagen");
+            }
+            if (virtualThreads) {
+                profiles.add("virtual-threads");
+            }
+            // DevTools only reads this as a system property, and would otherwise relaunch main
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            context = new SpringApplicationBuilder(PetClinicApplication.class)
+                    .profiles(profiles.toArray(new String[0]))
+                    // Random port, no per-statement logging or file appender while measuring,
+                    // requests sampled for tracing as in production rather than all of them.
+                    // Passed as arguments: builder properties are defaults that the profile yml overrides
+                    .run("--server.port=0", "--spring.jpa.show-sql=false", "--logging.file.name=",
+                            "--logging.level.root=WARN", "--management.tracing.sampling.probability=0.1");
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            threads = virtualThreads ? "virtual" : "platform";
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(options.threads);
+        try {
+            LoadTest loadTest = new LoadTest(options, url, threads, executor);
+            loadTest.run();
+            return loadTest;
+        } finally {
+            executor.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    void run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(42);
+        double meanGapNanos = 1_000_000_000.0 / options.rate;
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+
+        // Due times are accumulated as doubles so the rate does not drift with rounding
+        double due = start;
+        while ((long) due < end) {
+            long dueNanos = (long) due;
+            long wait;
+            while ((wait = dueNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(random, dueNanos, dueNanos >= measureFrom);
+            due += options.arrival == LoadTestOptions.Arrival.POISSON
+                    ? -Math.log(1.0 - random.nextDouble()) * meanGapNanos
+                    : meanGapNanos;
+        }
+
+        // Requests still in flight are bounded by the request timeout
+        long deadline = System.nanoTime() + options.timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        stats.values().forEach(EndpointStats::close);
+    }
+
+    private void send(SplittableRandom random, long dueNanos, boolean measured) {
+        Resource resource = resources.get(random.nextInt(resources.size()));
+        Method method = pickMethod(random.nextInt(totalWeight));
+        HttpRequest request = request(resource, method, random);
+
+        EndpointStats endpoint = measured ? stats.computeIfAbsent(method.endpoint(resource), EndpointStats::new) : null;
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long micros = (System.nanoTime() - dueNanos) / 1_000;
+                    if (response != null && method == Method.POST && response.statusCode() == 201) {
+                        Matcher id = ID.matcher(response.body());
+                        if (id.find()) {
+                            createdIds.get(resource).addLast(Long.parseLong(id.group(1)));
+                        }
+                    }
+                    if (endpoint != null) {
+                        endpoint.record(micros, response != null ? response.statusCode() : -1);
+                    }
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    private Method pickMethod(int weight) {
+        for (int i = 0; i < methods.size(); i++) {
+            if (weight < cumulativeWeights.get(i)) {
+                return methods.get(i);
+            }
+        }
+        throw new IllegalStateException("Weight out of range " + weight);
+    }
+
+    private HttpRequest request(Resource resource, Method method, SplittableRandom random) {
+        String collection = baseUrl + resource.path;
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(options.timeout);
+        switch (method) {
+            case LIST:
+                return builder.uri(URI.create(collection)).GET().build();
+            case GET:
+                return builder.uri(URI.create(collection + "/" + (1 + random.nextInt(resource.seededIds)))).GET().build();
+            case POST:
+                return builder.uri(URI.create(collection))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(resource.body(sequence.incrementAndGet())))
+                        .build();
+            case PUT: {
+                // Rows created by this run first, so the seeded rows read by GET stay as they are
+                Long created = createdIds.get(resource).peekLast();
+                long id = created != null ? created : 1 + random.nextInt(resource.seededIds);
+                return builder.uri(URI.create(collection + "/" + id))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(resource.body(sequence.incrementAndGet())))
+                        .build();
+            }
+            case DELETE: {
+                Long created = createdIds.get(resource).pollFirst();
+                return builder.uri(URI.create(collection + "/" + (created != null ? created : MISSING_ID)))
+                        .DELETE()
+                        .build();
+            }
+            default:
+                throw new IllegalArgumentException("Unknown method " + method);
+        }
+    }
+
+    String report() {
+        double seconds = options.duration.toNanos() / 1e9;
+        StringBuilder report = new StringBuilder();
+        report.append("Petclinic load test, ").append(LocalDateTime.now()).append('\n')
+                .append("target  ").append(baseUrl).append('\n');
+        if (threads != null) {
+            report.append("threads ").append(threads).append('\n');
+        }
+        report.append("options ").append(options).append('\n')
+                .append("max in-flight ").append(maxInFlight.get()).append("\n\n")
+                .append(String.format("%-28s %9s %9s %8s %7s %9s %9s %9s %9s %9s%n",
+                        "endpoint", "count", "req/s", "non-2xx", "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        for (EndpointStats endpoint : stats.values()) {
+            appendRow(report, endpoint.endpoint, endpoint.latency(), seconds,
+                    endpoint.non2xx.sum(), endpoint.failed.sum());
+        }
+        appendRow(report, "TOTAL", total(), seconds, non2xx(), failed());
+
+        // Full distributions, in milliseconds, for plotting or comparing runs
+        for (EndpointStats endpoint : stats.values()) {
+            ByteArrayOutputStream distribution = new ByteArrayOutputStream();
+            endpoint.latency().outputPercentileDistribution(new PrintStream(distribution, true, StandardCharsets.UTF_8), 1_000.0);
+            report.append("\n== ").append(endpoint.endpoint).append(" ==\n")
+                    .append(distribution.toString(StandardCharsets.UTF_8));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Throughput and tail latency of two runs, side by side
+     */
+    static String comparison(LoadTest platform, LoadTest virtual) {
+        StringBuilder report = new StringBuilder();
+        report.append("Platform vs virtual request threads, ").append(platform.options).append("\n\n")
+                .append(String.format("%-10s %9s %9s %8s %7s %9s %9s %9s %9s %13s%n",
+                        "threads", "count", "req/s", "non-2xx", "failed", "p50 ms", "p99 ms", "p99.9 ms", "max ms",
+                        "max in-flight"));
+        for (LoadTest run : List.of(platform, virtual)) {
+            Histogram total = run.total();
+            report.append(String.format("%-10s %9d %9.1f %8d %7d %9.3f %9.3f %9.3f %9.3f %13d%n",
+                    run.threads, total.getTotalCount(), total.getTotalCount() / (run.options.duration.toNanos() / 1e9),
+                    run.non2xx(), run.failed(), millis(total, 50.0), millis(total, 99.0), millis(total, 99.9),
+                    total.getMaxValue() / 1_000.0, run.maxInFlight.get()));
+        }
+        return report.toString();
+    }
+
+    private Histogram total() {
+        Histogram total = new Histogram(EndpointStats.SIGNIFICANT_DIGITS);
+        for (EndpointStats endpoint : stats.values()) {
+            total.add(endpoint.latency());
+        }
+        return total;
+    }
+
+    private long non2xx() {
+        return stats.values().stream().mapToLong(endpoint -> endpoint.non2xx.sum()).sum();
+    }
+
+    private long failed() {
+        return stats.values().stream().mapToLong(endpoint -> endpoint.failed.sum()).sum();
+    }
+
+    private static void appendRow(StringBuilder report, String name, Histogram latency, double seconds,
+                                  long non2xx, long failed) {
+        report.append(String.format("%-28s %9d %9.1f %8d %7d %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                name, latency.getTotalCount(), latency.getTotalCount() / seconds, non2xx, failed,
+                millis(latency, 50.0), millis(latency, 90.0), millis(latency, 99.0), millis(latency, 99.9),
+                latency.getMaxValue() / 1_000.0));
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1_000.0;
+    }
+}
@@ -0,0 +1,129 @@
+package com.tecsup.petclinic.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line of the load test, as key=value arguments:
+ * <pre>
+ * url=http://host:8080   target an app already running (default: boot one on the h2 profile)
+ * datagen=true           boot it with the datagen profile too, sized by -Dpetclinic.datagen.*
+ * virtual=true           boot it serving requests on virtual threads (virtual-threads profile, Java 21+)
+ * compare=true           boot it twice, on platform then on virtual threads, and compare the two runs
+ * rate=200               requests started per second, whatever the response times
+ * arrival=poisson        poisson or constant gaps between two requests
+ * warmup=5               seconds sent but not recorded
+ * duration=30            seconds recorded
+ * mix=GET:60,LIST:10,POST:10,PUT:10,DELETE:10   weight of each method
+ * resources=pets,owners,vets,visits,specialties,types
+ * threads=32             client threads
+ * timeout=10             seconds before a request counts as failed
+ * report=target/loadtest-report.txt
+ * </pre>
+ */
+final class LoadTestOptions {
+
+    enum Arrival {POISSON, CONSTANT}
+
+    String url;
+    boolean datagen;
+    boolean virtual;
+    boolean compare;
+    int rate = 200;
+    Arrival arrival = Arrival.POISSON;
+    Duration warmup = Duration.ofSeconds(5);
+    Duration duration = Duration.ofSeconds(30);
+    Map<Method, Integer> mix = parseMix("GET:60,LIST:10,POST:10,PUT:10,DELETE:10");
+    Set<Resource> resources = EnumSet.allOf(Resource.class);
+    int threads = 32;
+    Duration timeout = Duration.ofSeconds(10);
+    Path report = Path.of("target", "loadtest-report.txt");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = option.indexOf('=');
+            if (eq < 1) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            values.put(option.substring(0, eq), option.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        options.url = values.remove("url");
+        options.datagen = Boolean.parseBoolean(values.remove("datagen"));
+        options.virtual = Boolean.parseBoolean(values.remove("virtual"));
+        options.compare = Boolean.parseBoolean(values.remove("compare"));
+        if (values.containsKey("rate")) {
+            options.rate = Integer.parseInt(values.remove("rate"));
+        }
+        if (values.containsKey("arrival")) {
+            options.arrival = Arrival.valueOf(values.remove("arrival").toUpperCase());
+        }
+        if (values.containsKey("warmup")) {
+            options.warmup = Duration.ofSeconds(Long.parseLong(values.remove("warmup")));
+        }
+        if (values.containsKey("duration")) {
+            options.duration = Duration.ofSeconds(Long.parseLong(values.remove("duration")));
+        }
+        if (values.containsKey("mix")) {
+            options.mix = parseMix(values.remove("mix"));
+        }
+        if (values.containsKey("resources")) {
+            options.resources = EnumSet.noneOf(Resource.class);
+            for (String name : values.remove("resources").split(",")) {
+                options.resources.add(Resource.valueOf(name.trim().toUpperCase()));
+            }
+        }
+        if (values.containsKey("threads")) {
+            options.threads = Integer.parseInt(values.remove("threads"));
+        }
+        if (values.containsKey("timeout")) {
+            options.timeout = Duration.ofSeconds(Long.parseLong(values.remove("timeout")));
+        }
+        if (values.containsKey("report")) {
+            options.report = Path.of(values.remove("report"));
+        }
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        if (options.rate < 1 || options.resources.isEmpty()) {
+            throw new IllegalArgumentException("rate must be positive and resources not empty");
+        }
+        if ((options.virtual || options.compare) && options.url != null) {
+            throw new IllegalArgumentException("virtual and compare boot the application, they cannot be used with url");
+        }
+        if ((options.virtual || options.compare) && Runtime.version().feature() < 21) {
+            throw new IllegalArgumentException("Virtual threads need Java 21 or later, running " + Runtime.version());
+        }
+        return options;
+    }
+
+    private static Map<Method, Integer> parseMix(String mix) {
+        Map<Method, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Method.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty mix " + mix);
+        }
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return "rate=" + rate + "/s arrival=" + arrival.name().toLowerCase()
+                + " warmup=" + warmup.toSeconds() + "s duration=" + duration.toSeconds() + "s"
+                + " mix=" + mix + " resources=" + resources + " threads=" + threads;
+    }
+}
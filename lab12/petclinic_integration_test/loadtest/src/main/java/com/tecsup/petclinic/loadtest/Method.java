@@ -0,0 +1,30 @@
+package com.tecsup.petclinic.loadtest;
+
+/**
+ * What a request does to a resource
+ */
+enum Method {
+
+    /** GET of the first page of the collection */
+    LIST("GET", ""),
+    /** GET of one row by id */
+    GET("GET", "/{id}"),
+    POST("POST", ""),
+    PUT("PUT", "/{id}"),
+    DELETE("DELETE", "/{id}");
+
+    final String http;
+    final String suffix;
+
+    Method(String http, String suffix) {
+        this.http = http;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Name the latencies are reported under, e.g. "GET /pets/{id}"
+     */
+    String endpoint(Resource resource) {
+        return http + " " + resource.path + suffix;
+    }
+}
@@ -0,0 +1,57 @@
+package com.tecsup.petclinic.loadtest;
+
+/**
+ * The REST resources under load, with the ids seeded by data.sql and the JSON
+ * body of a POST or PUT
+ */
+enum Resource {
+
+    PETS("/pets", 13) {
+        @Override
+        String body(long n) {
+            return "{\"name\":\"Load" + n + "\",\"typeId\":" + (1 + n % 6) + ",\"ownerId\":" + (1 + n % 10)
+                    + ",\"birthDate\":\"2020-01-01\"}";
+        }
+    },
+    OWNERS("/owners", 10) {
+        @Override
+        String body(long n) {
+            return "{\"firstName\":\"Load\",\"lastName\":\"Owner" + n + "\",\"address\":\"Av. Load " + n
+                    + "\",\"city\":\"Lima\",\"telephone\":\"999999999\"}";
+        }
+    },
+    VETS("/vets", 6) {
+        @Override
+        String body(long n) {
+            return "{\"firstName\":\"Load\",\"lastName\":\"Vet" + n + "\"}";
+        }
+    },
+    VISITS("/visits", 6) {
+        @Override
+        String body(long n) {
+            return "{\"visitDate\":\"2024-01-01\",\"description\":\"Load visit " + n + "\",\"petId\":" + (1 + n % 13) + "}";
+        }
+    },
+    SPECIALTIES("/specialties", 3) {
+        @Override
+        String body(long n) {
+            return "{\"name\":\"load" + n + "\"}";
+        }
+    },
+    TYPES("/types", 8) {
+        @Override
+        String body(long n) {
+            return "{\"name\":\"load" + n + "\"}";
+        }
+    };
+
+    final String path;
+    final int seededIds;
+
+    Resource(String path, int seededIds) {
+        this.path = path;
+        this.seededIds = seededIds;
+    }
+
+    abstract String body(long n);
+}
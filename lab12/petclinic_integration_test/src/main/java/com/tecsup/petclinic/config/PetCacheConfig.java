@@ -0,0 +1,49 @@
+package com.tecsup.petclinic.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tecsup.petclinic.dtos.PetDTO;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Read-through cache of PetDTOs in front of PetService.findById
+ */
+@Configuration
+@EnableConfigurationProperties(PetCacheProperties.class)
+public class PetCacheConfig {
+
+    public static final String PET_CACHE = "pets-dto";
+
+    /**
+     * Async form, for loads done outside the cache's compute (see PetService.findById)
+     */
+    @Bean
+    public AsyncCache<Integer, PetDTO> petAsyncCache(PetCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Synchronous view of the same entries, for lookups, invalidation and stats
+     */
+    @Bean
+    public Cache<Integer, PetDTO> petCache(AsyncCache<Integer, PetDTO> petAsyncCache) {
+        return petAsyncCache.synchronous();
+    }
+
+    /**
+     * cache.gets / cache.puts / cache.evictions of the petCache, tagged cache=pets-dto
+     */
+    @Bean
+    public MeterBinder petCacheMetrics(Cache<Integer, PetDTO> petCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, petCache, PET_CACHE);
+    }
+}
@@ -0,0 +1,25 @@
+package com.tecsup.petclinic.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the PetDTO cache used by PetService.findById (petclinic.pet-cache.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "petclinic.pet-cache")
+public class PetCacheProperties {
+
+    /**
+     * Pets kept in memory, the least used are evicted first
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Time after which a cached pet is reloaded, bounds staleness for writes
+     * that do not go through PetService
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
@@ -0,0 +1,60 @@
+package com.tecsup.petclinic.config;
+
+import com.tecsup.petclinic.repositories.ReactiveVisitRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.util.StringUtils;
+
+/**
+ * R2DBC read path next to JPA, with the reactive profile, configured by spring.r2dbc.*.
+ *
+ * Spring Boot's R2DBC auto-configuration is excluded (application.yml) and the
+ * pool is not a ConnectionFactory bean: with one, Boot would run schema.sql and
+ * data.sql through R2DBC instead of JDBC, and pick an R2DBC transaction manager
+ * over the JPA one.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(R2dbcProperties.class)
+@EnableR2dbcRepositories(basePackageClasses = ReactiveVisitRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveVisitRepository.class),
+        entityOperationsRef = "reactiveEntityTemplate")
+public class R2dbcConfig implements DisposableBean {
+
+    private ConnectionPool pool;
+
+    @Bean
+    public R2dbcEntityTemplate reactiveEntityTemplate(R2dbcProperties properties) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate();
+        if (StringUtils.hasText(properties.getUsername())) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (StringUtils.hasText(properties.getPassword())) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .initialSize(properties.getPool().getInitialSize())
+                .maxSize(properties.getPool().getMaxSize())
+                .build());
+        return new R2dbcEntityTemplate(pool);
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+}
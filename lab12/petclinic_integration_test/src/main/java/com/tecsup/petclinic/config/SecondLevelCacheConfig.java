@@ -0,0 +1,36 @@
+package com.tecsup.petclinic.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * JCache manager of the Hibernate second-level cache, one per application context.
+ *
+ * The provider's default manager is shared by the whole JVM: closing one context
+ * (a test with its own properties, a DevTools restart) would close the regions of
+ * every other one. Any URI that is not a config resource makes Caffeine read
+ * application.conf, so each manager still gets the configured regions.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        URI uri = URI.create("urn:petclinic:l2:" + UUID.randomUUID());
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+}
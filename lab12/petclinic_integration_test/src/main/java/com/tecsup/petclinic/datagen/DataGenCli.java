@@ -0,0 +1,24 @@
+package com.tecsup.petclinic.datagen;
+
+import com.tecsup.petclinic.PetClinicApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+
+/**
+ * Fills a database and exits, e.g. against MySQL:
+ * <pre>
+ * java -cp ... com.tecsup.petclinic.datagen.DataGenCli --spring.profiles.active=mysql \
+ *     --petclinic.datagen.owners=1000000 --petclinic.datagen.pets=2000000 --petclinic.datagen.visits=10000000
+ * </pre>
+ * The in-memory H2 database is gone when the CLI exits: for H2 run the
+ * application itself with the datagen profile instead.
+ */
+public class DataGenCli {
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(PetClinicApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setAdditionalProfiles("datagen");
+        System.exit(SpringApplication.exit(application.run(args)));
+    }
+}
@@ -0,0 +1,22 @@
+package com.tecsup.petclinic.datagen;
+
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * With the datagen profile, the generated rows are added at startup, after
+ * schema.sql and data.sql and before the application takes requests
+ */
+@Configuration
+@Profile("datagen")
+@EnableConfigurationProperties(DataGenProperties.class)
+public class DataGenConfig {
+
+    @Bean
+    public ApplicationRunner dataGenRunner(DataGenerator dataGenerator, DataGenProperties properties) {
+        return args -> dataGenerator.generate(properties);
+    }
+}
@@ -0,0 +1,40 @@
+package com.tecsup.petclinic.datagen;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rows added by the data generator on top of what is already in the database
+ * (petclinic.datagen.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "petclinic.datagen")
+public class DataGenProperties {
+
+    /**
+     * Same seed and same starting database, same rows
+     */
+    private long seed = 42;
+
+    private int owners = 100_000;
+
+    private int pets = 200_000;
+
+    private int visits = 1_000_000;
+
+    private int vets = 1_000;
+
+    private int types = 20;
+
+    private int specialties = 50;
+
+    /**
+     * Specialties of each generated vet, distinct, capped by the specialties available
+     */
+    private int specialtiesPerVet = 2;
+
+    /**
+     * Rows per multi-row INSERT statement
+     */
+    private int rowsPerStatement = 1_000;
+}
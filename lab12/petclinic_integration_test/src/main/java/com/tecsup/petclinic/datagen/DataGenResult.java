@@ -0,0 +1,35 @@
+package com.tecsup.petclinic.datagen;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Ids given to the generated rows, by table
+ */
+@Value
+public class DataGenResult {
+
+    Map<String, IdRange> ranges;
+
+    long millis;
+
+    public IdRange get(String table) {
+        return ranges.get(table);
+    }
+
+    /**
+     * Contiguous ids first .. first + count - 1
+     */
+    @Value(staticConstructor = "of")
+    public static class IdRange {
+
+        int first;
+
+        int count;
+
+        public int last() {
+            return first + count - 1;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.tecsup.petclinic.datagen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Adds referentially consistent rows to owners, pets, types, vets,
+ * vet_specialties and visits with multi-row INSERTs, straight through JDBC.
+ * The values only depend on the seed, the ids continue after the rows already
+ * there, and the pets and visits id sequences are moved past the new rows.
+ */
+@Component
+@Slf4j
+public class DataGenerator {
+
+    private static final String[] FIRST_NAMES = {"George", "Betty", "Eduardo", "Harold", "Peter", "Jean", "Jeff",
+            "Maria", "David", "Carlos", "Lucia", "Rosa", "Miguel", "Ana", "Jorge", "Elena", "Luis", "Sofia", "Diego", "Laura"};
+    private static final String[] LAST_NAMES = {"Franklin", "Davis", "Rodriquez", "Black", "McTavish", "Coleman",
+            "Escobito", "Schroeder", "Estaban", "Quispe", "Flores", "Garcia", "Torres", "Rojas", "Mendoza", "Castro"};
+    private static final String[] STREETS = {"Av. Arequipa", "Jr. Union", "Av. Brasil", "Calle Lima", "Av. Grau",
+            "Jr. Cusco", "Av. Salaverry", "Calle Real"};
+    private static final String[] CITIES = {"Lima", "Arequipa", "Trujillo", "Cusco", "Piura", "Chiclayo", "Huancayo", "Tacna"};
+    private static final String[] PET_NAMES = {"Leo", "Basil", "Rosy", "Jewel", "Iggy", "George", "Samantha", "Max",
+            "Lucky", "Mulligan", "Freddy", "Sly", "Luna", "Rocky", "Toby", "Kira", "Coco", "Milo"};
+    private static final String[] SIZES = {"SMALL", "MEDIUM", "LARGE"};
+    private static final String[] VISIT_DESCRIPTIONS = {"rabies shot", "neutered", "spayed", "annual checkup",
+            "dental cleaning", "vaccination", "skin allergy", "follow-up"};
+
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(2005, 1, 1);
+    private static final LocalDate FIRST_VISIT_DATE = LocalDate.of(2015, 1, 1);
+    private static final int DATE_SPAN_DAYS = 10 * 365;
+
+    // allocationSize of the pets_seq and visits_seq generators, see Pet and Visit
+    private static final int SEQUENCE_ALLOCATION = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DataGenerator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param properties How many rows of each table
+     * @return Ids of the generated rows
+     */
+    public DataGenResult generate(DataGenProperties properties) {
+
+        long start = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(properties.getSeed());
+        int perStatement = properties.getRowsPerStatement();
+        boolean mysql = isMysql();
+        Map<String, DataGenResult.IdRange> ranges = new LinkedHashMap<>();
+
+        DataGenResult.IdRange types = insert("types", "name, description, size_category", nextId("types"),
+                properties.getTypes(), perStatement, (id, args, i) -> {
+                    args[i] = "type-" + id;
+                    args[i + 1] = "Generated pet type " + id;
+                    args[i + 2] = SIZES[random.nextInt(SIZES.length)];
+                });
+        ranges.put("types", types);
+
+        DataGenResult.IdRange specialties = insert("specialties", "name, office, h_open, h_close", nextId("specialties"),
+                properties.getSpecialties(), perStatement, (id, args, i) -> {
+                    args[i] = "specialty-" + id;
+                    args[i + 1] = CITIES[random.nextInt(CITIES.length)];
+                    args[i + 2] = 8;
+                    args[i + 3] = 18;
+                });
+        ranges.put("specialties", specialties);
+
+        DataGenResult.IdRange vets = insert("vets", "first_name, last_name, email, phone", nextId("vets"),
+                properties.getVets(), perStatement, (id, args, i) -> {
+                    String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                    String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                    args[i] = firstName;
+                    args[i + 1] = lastName;
+                    args[i + 2] = (firstName + "." + lastName + id + "@petclinic.com").toLowerCase();
+                    args[i + 3] = phone(random);
+                });
+        ranges.put("vets", vets);
+
+        if (vets.getCount() > 0 && properties.getSpecialtiesPerVet() > 0) {
+            // Distinct specialties per vet: consecutive ones from a random start
+            IdPool specialtyPool = pool("specialties", specialties);
+            int perVet = Math.min(properties.getSpecialtiesPerVet(), specialtyPool.size());
+            int[] offset = new int[1];
+            insertRows("vet_specialties", "vet_id, specialty_id", vets.getCount() * perVet, perStatement,
+                    (row, args, i) -> {
+                        if (row % perVet == 0) {
+                            offset[0] = random.nextInt(specialtyPool.size());
+                        }
+                        args[i] = vets.getFirst() + row / perVet;
+                        args[i + 1] = specialtyPool.get((offset[0] + row % perVet) % specialtyPool.size());
+                    });
+        }
+
+        DataGenResult.IdRange owners = insert("owners", "first_name, last_name, address, city, telephone",
+                nextId("owners"), properties.getOwners(), perStatement, (id, args, i) -> {
+                    args[i] = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                    args[i + 1] = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                    args[i + 2] = STREETS[random.nextInt(STREETS.length)] + " " + (1 + random.nextInt(9_999));
+                    args[i + 3] = CITIES[random.nextInt(CITIES.length)];
+                    args[i + 4] = phone(random);
+                });
+        ranges.put("owners", owners);
+
+        DataGenResult.IdRange pets = DataGenResult.IdRange.of(0, 0);
+        if (properties.getPets() > 0) {
+            IdPool typePool = pool("types", types);
+            IdPool ownerPool = pool("owners", owners);
+            pets = insert("pets", "name, birth_date, type_id, owner_id", firstSequenceId("pets", "pets_seq", mysql),
+                    properties.getPets(), perStatement, (id, args, i) -> {
+                        args[i] = PET_NAMES[random.nextInt(PET_NAMES.length)];
+                        args[i + 1] = FIRST_BIRTH_DATE.plusDays(random.nextInt(DATE_SPAN_DAYS));
+                        args[i + 2] = typePool.pick(random);
+                        args[i + 3] = ownerPool.pick(random);
+                    });
+            advanceSequence("pets_seq", pets, mysql);
+        }
+        ranges.put("pets", pets);
+
+        DataGenResult.IdRange visits = DataGenResult.IdRange.of(0, 0);
+        if (properties.getVisits() > 0) {
+            IdPool petPool = pool("pets", pets);
+            IdPool vetPool = pool("vets", vets);
+            visits = insert("visits", "pet_id, vet_id, visit_date, description",
+                    firstSequenceId("visits", "visits_seq", mysql), properties.getVisits(), perStatement,
+                    (id, args, i) -> {
+                        args[i] = petPool.pick(random);
+                        args[i + 1] = vetPool.pick(random);
+                        args[i + 2] = FIRST_VISIT_DATE.plusDays(random.nextInt(DATE_SPAN_DAYS));
+                        args[i + 3] = VISIT_DESCRIPTIONS[random.nextInt(VISIT_DESCRIPTIONS.length)];
+                    });
+            advanceSequence("visits_seq", visits, mysql);
+        }
+        ranges.put("visits", visits);
+
+        long millis = System.currentTimeMillis() - start;
+        log.info("datagen done in {} ms: {}", millis, ranges);
+        return new DataGenResult(ranges, millis);
+    }
+
+    /**
+     * Fills the columns of one row, from args[offset]
+     */
+    @FunctionalInterface
+    interface RowWriter {
+        void write(int row, Object[] args, int offset);
+    }
+
+    private DataGenResult.IdRange insert(String table, String columns, int first, int rows, int perStatement,
+                                         RowWriter writer) {
+        insertRows(table, "id, " + columns, rows, perStatement, (row, args, i) -> {
+            args[i] = first + row;
+            writer.write(first + row, args, i + 1);
+        });
+        return DataGenResult.IdRange.of(first, rows);
+    }
+
+    private void insertRows(String table, String columns, int rows, int perStatement, RowWriter writer) {
+
+        if (rows <= 0) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int columnCount = columns.split(",").length;
+        String tuple = "(" + "?, ".repeat(columnCount - 1) + "?)";
+        String prefix = "INSERT INTO " + table + " (" + columns + ") VALUES ";
+
+        String fullStatement = null;
+        for (int done = 0; done < rows; ) {
+            int chunk = Math.min(perStatement, rows - done);
+            String sql;
+            if (chunk == perStatement) {
+                if (fullStatement == null) {
+                    fullStatement = prefix + String.join(", ", Collections.nCopies(chunk, tuple));
+                }
+                sql = fullStatement;
+            } else {
+                sql = prefix + String.join(", ", Collections.nCopies(chunk, tuple));
+            }
+            Object[] args = new Object[chunk * columnCount];
+            for (int row = 0; row < chunk; row++) {
+                writer.write(done + row, args, row * columnCount);
+            }
+            jdbcTemplate.update(sql, args);
+            done += chunk;
+        }
+        log.info("datagen {}: {} rows in {} ms", table, rows, System.currentTimeMillis() - start);
+    }
+
+    private int nextId(String table) {
+        Integer max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Integer.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    /**
+     * First id above the rows already there and above any block of ids
+     * Hibernate may already hold from the sequence
+     */
+    private int firstSequenceId(String table, String sequence, boolean mysql) {
+        Integer current = mysql
+                ? jdbcTemplate.queryForObject("SELECT next_val FROM " + sequence, Integer.class)
+                : jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Integer.class);
+        return Math.max(nextId(table), current + SEQUENCE_ALLOCATION);
+    }
+
+    /**
+     * Moves the sequence so the next block of ids starts after the generated rows
+     */
+    private void advanceSequence(String sequence, DataGenResult.IdRange range, boolean mysql) {
+        int next = range.last() + 1 + SEQUENCE_ALLOCATION;
+        if (mysql) {
+            jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ?", next);
+        } else {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+        }
+    }
+
+    private IdPool pool(String table, DataGenResult.IdRange generated) {
+        return generated.getCount() > 0
+                ? IdPool.range(generated)
+                : IdPool.of(table, jdbcTemplate.queryForList("SELECT id FROM " + table + " ORDER BY id", Integer.class));
+    }
+
+    private boolean isMysql() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("mysql");
+    }
+
+    private static String phone(SplittableRandom random) {
+        return String.valueOf(900_000_000 + random.nextInt(100_000_000));
+    }
+}
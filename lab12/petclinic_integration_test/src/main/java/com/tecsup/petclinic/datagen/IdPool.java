@@ -0,0 +1,44 @@
+package com.tecsup.petclinic.datagen;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Ids a generated row may reference: the rows generated for the parent table,
+ * or the parent rows already there when none are generated
+ */
+final class IdPool {
+
+    private final int first;
+    private final int size;
+    private final int[] ids;
+
+    private IdPool(int first, int size, int[] ids) {
+        this.first = first;
+        this.size = size;
+        this.ids = ids;
+    }
+
+    static IdPool range(DataGenResult.IdRange range) {
+        return new IdPool(range.getFirst(), range.getCount(), null);
+    }
+
+    static IdPool of(String table, List<Integer> existing) {
+        if (existing.isEmpty()) {
+            throw new IllegalStateException("No " + table + " to reference, generate some first");
+        }
+        return new IdPool(0, existing.size(), existing.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return ids == null ? first + index : ids[index];
+    }
+
+    int pick(SplittableRandom random) {
+        return get(random.nextInt(size));
+    }
+}
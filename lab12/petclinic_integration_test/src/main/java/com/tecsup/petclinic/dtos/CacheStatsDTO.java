@@ -0,0 +1,32 @@
+package com.tecsup.petclinic.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Hit/miss counters of one cache
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDTO {
+    private String name;
+    private long hits;
+    private long misses;
+    private long puts;
+
+    public static CacheStatsDTO of(String name, long hits, long misses, long puts) {
+        return new CacheStatsDTO(name, hits, misses, puts);
+    }
+
+    /**
+     * @return hits / (hits + misses), 0 when the cache was never read
+     */
+    public double getHitRatio() {
+        long reads = hits + misses;
+        return reads == 0 ? 0.0 : (double) hits / reads;
+    }
+}
@@ -0,0 +1,24 @@
+package com.tecsup.petclinic.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for Owner entity
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OwnerDTO {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String address;
+    private String city;
+    private String telephone;
+    // Returned as the ETag of GET /owners/{id}
+    private int version;
+}
@@ -0,0 +1,21 @@
+package com.tecsup.petclinic.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fields of a PATCH /owners/{id}, null means unchanged
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OwnerPatchDTO {
+    private String firstName;
+    private String lastName;
+    private String address;
+    private String city;
+    private String telephone;
+}
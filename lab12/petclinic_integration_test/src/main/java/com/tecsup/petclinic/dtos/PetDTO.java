@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
 
 /**
  * 
@@ -15,7 +16,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class PetDTO {
 
 	private Integer id;
@@ -28,4 +29,20 @@ public class PetDTO {
 
 	private String birthDate;
 
+	/**
+	 * Version of the pet row, returned as the ETag of GET /pets/{id}
+	 */
+	private int version;
+
+	public PetDTO(Integer id, String name, int typeId, int ownerId, String birthDate) {
+		this(id, name, typeId, ownerId, birthDate, 0);
+	}
+
+	/**
+	 * Used by the JPQL constructor projections of PetRepository
+	 */
+	public PetDTO(Integer id, String name, int typeId, int ownerId, LocalDate birthDate, int version) {
+		this(id, name, typeId, ownerId, birthDate != null ? birthDate.toString() : "", version);
+	}
+
 }
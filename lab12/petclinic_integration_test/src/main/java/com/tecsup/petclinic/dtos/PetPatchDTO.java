@@ -0,0 +1,20 @@
+package com.tecsup.petclinic.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fields of a PATCH /pets/{id}, null means unchanged
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PetPatchDTO {
+    private String name;
+    private Integer typeId;
+    private Integer ownerId;
+    private String birthDate;
+}
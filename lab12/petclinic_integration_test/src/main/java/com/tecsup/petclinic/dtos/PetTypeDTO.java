@@ -0,0 +1,20 @@
+package com.tecsup.petclinic.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for PetType entity
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PetTypeDTO {
+
+    private Integer id;
+
+    private String name;
+}
@@ -0,0 +1,31 @@
+package com.tecsup.petclinic.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * DTO for Vet entity
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VetDTO {
+
+    private Integer id;
+
+    private String firstName;
+
+    private String lastName;
+
+    /**
+     * Version of the vet row, returned as the ETag of GET /vets/{id}
+     */
+    private int version;
+
+    private Set<SpecialtyDTO> specialties;
+}
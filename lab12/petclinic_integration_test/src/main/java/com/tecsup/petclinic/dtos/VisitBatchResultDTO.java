@@ -0,0 +1,21 @@
+package com.tecsup.petclinic.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a visit ingestion batch: how many rows were inserted and
+ * which ones were rejected
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VisitBatchResultDTO {
+    private int accepted;
+    private List<VisitRowErrorDTO> errors;
+}
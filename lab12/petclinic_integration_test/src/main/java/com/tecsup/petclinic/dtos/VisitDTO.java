@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+
 /**
  * DTO for Visit entity
  */
@@ -17,4 +19,11 @@ public class VisitDTO {
     private String visitDate;
     private String description;
     private Integer petId;
+
+    /**
+     * Used by the JPQL constructor projections of VisitRepository
+     */
+    public VisitDTO(Long id, LocalDate visitDate, String description, Integer petId) {
+        this(id, visitDate != null ? visitDate.toString() : null, description, petId);
+    }
 }
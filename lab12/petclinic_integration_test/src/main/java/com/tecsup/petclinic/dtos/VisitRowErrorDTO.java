@@ -0,0 +1,18 @@
+package com.tecsup.petclinic.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rejected row of a visit ingestion batch
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VisitRowErrorDTO {
+    private int index;
+    private String message;
+}
@@ -37,6 +37,13 @@ public class Owner {
 	@Column(name = "telephone")
 	private String telephone;
 
+	/**
+	 * Optimistic lock, also the source of the ETag
+	 */
+	@Version
+	@Column(name = "version")
+	private int version;
+
 //	@OneToMany(mappedBy = "owner", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
 //	@ToString.Exclude
 //	// @EqualsAndHashCode.Exclude
@@ -7,7 +7,7 @@ import lombok.ToString;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import jakarta.persistence.*;
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.Set;
 
 /**
@@ -21,7 +21,8 @@ import java.util.Set;
 public class Pet {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pets_seq")
+	@SequenceGenerator(name = "pets_seq", sequenceName = "pets_seq", initialValue = 100, allocationSize = 50)
 	private Integer id;
 
 	@Column(name = "name")
@@ -35,10 +36,19 @@ public class Pet {
 
 	@DateTimeFormat(pattern = "yyyy-MM-dd")
 	@Column(name = "birth_date")
-	private Date birthDate;
+	private LocalDate birthDate;
 
+	/**
+	 * Optimistic lock, also the source of the ETag
+	 */
+	@Version
+	@Column(name = "version")
+	private int version;
 
-	@OneToMany(mappedBy = "pet", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+
+	// No JPA cascade: visits are removed by the database (visits.pet_id ON DELETE
+	// CASCADE, see Visit.pet), so deleting a pet never loads its visits
+	@OneToMany(mappedBy = "pet", fetch = FetchType.LAZY)
 	@ToString.Exclude
 	//@EqualsAndHashCode.Exclude
 	private Set<Visit> visits;
@@ -53,7 +63,7 @@ public class Pet {
 //	@ToString.Exclude
 //	private Owner owner;
 
-	public Pet(Integer id, String name, int type_id, int owner_id, Date birthDate) {
+	public Pet(Integer id, String name, int type_id, int owner_id, LocalDate birthDate) {
 		super();
 		this.id = id;
 		this.name = name;
@@ -63,7 +73,7 @@ public class Pet {
 
 	}
 
-	public Pet(String name, int type_id, int owner_id, Date birthDate) {
+	public Pet(String name, int type_id, int owner_id, LocalDate birthDate) {
 		super();
 		this.name = name;
 		this.typeId = type_id;
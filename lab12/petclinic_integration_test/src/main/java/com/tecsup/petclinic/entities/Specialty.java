@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
@@ -16,6 +18,8 @@ import java.util.Set;
  */
 @NoArgsConstructor
 @Entity(name = "specialties")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "specialties")
 @Data
 public class Specialty {
 
@@ -29,6 +33,6 @@ public class Specialty {
 	@ManyToMany(mappedBy = "specialties", fetch = FetchType.LAZY)
 	@ToString.Exclude
 	@JsonIgnore
-	//@EqualsAndHashCode.Exclude
+	@EqualsAndHashCode.Exclude
 	private Set<Vet> vets;
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.tecsup.petclinic.entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.tecsup.petclinic.util.CursorCodec;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
@@ -17,6 +23,11 @@ import java.util.Set;
 @Data
 public class Vet {
 
+	/**
+	 * Cache role of the specialties collection, for explicit evictions
+	 */
+	public static final String SPECIALTIES_ROLE = Vet.class.getName() + ".specialties";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Integer id;
@@ -27,6 +38,13 @@ public class Vet {
 	@Column(name = "last_name")
 	private String lastName;
 
+	/**
+	 * Optimistic lock, also the source of the ETag
+	 */
+	@Version
+	@Column(name = "version")
+	private int version;
+
 	@ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
 	@JoinTable(
 			name = "vet_specialties",
@@ -34,6 +52,12 @@ public class Vet {
 			inverseJoinColumns = @JoinColumn(name = "specialty_id")
 	)
 	@JsonIgnoreProperties("vets")
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
+	// Initializing one vet's specialties loads them for a whole page of vets in one query
+	@BatchSize(size = CursorCodec.MAX_PAGE_SIZE)
+	// Only the specialty ids are cached here, the specialties come from their own region
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "vets-specialties")
 	private Set<Specialty> specialties;
 
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDate;
 
@@ -18,7 +20,8 @@ import java.time.LocalDate;
 public class Visit {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "visits_seq")
+	@SequenceGenerator(name = "visits_seq", sequenceName = "visits_seq", initialValue = 100, allocationSize = 50)
 	private Long id;
 
 	@Column(name = "visit_date")
@@ -27,8 +30,16 @@ public class Visit {
 	@Column(name = "description")
 	private String description;
 
+	/**
+	 * Optimistic lock
+	 */
+	@Version
+	@Column(name = "version")
+	private int version;
+
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "pet_id")
-	//@ToString.Exclude
+	@OnDelete(action = OnDeleteAction.CASCADE)
+	@ToString.Exclude
 	private Pet pet;
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.tecsup.petclinic.entities;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only row of the visits table for the R2DBC read path, the pet is only
+ * referenced by its id. Visits are written through the JPA {@link Visit}.
+ */
+@NoArgsConstructor
+@Table("visits")
+@Data
+public class VisitRow {
+
+	@Id
+	private Long id;
+
+	@Column("pet_id")
+	private Integer petId;
+
+	@Column("visit_date")
+	private LocalDate visitDate;
+
+	@Column("description")
+	private String description;
+}
@@ -0,0 +1,13 @@
+package com.tecsup.petclinic.exceptions;
+
+/**
+ * Exception for a malformed or foreign pagination cursor
+ */
+public class InvalidCursorException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
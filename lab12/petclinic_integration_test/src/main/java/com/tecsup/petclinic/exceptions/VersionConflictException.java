@@ -0,0 +1,20 @@
+package com.tecsup.petclinic.exceptions;
+
+/**
+ * Exception for a write based on a version that is no longer the current one
+ */
+public class VersionConflictException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int currentVersion;
+
+    public VersionConflictException(String message, int currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+
+    public int getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,56 @@
+package com.tecsup.petclinic.instrumentation;
+
+import com.tecsup.petclinic.mapper.PetMapper;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.ClassUtils;
+
+import java.util.function.Function;
+
+/**
+ * Interceptor wiring shared by the instrumentation bean post-processors
+ * (Server-Timing, JFR events)
+ */
+public final class InstrumentedBeans {
+
+    private static final String MAPPER_PACKAGE = PetMapper.class.getPackageName();
+
+    private InstrumentedBeans() {
+    }
+
+    /**
+     * Adds an interceptor to the repository a factory bean creates (the way Spring
+     * Boot adds its repository metrics); other beans are left alone
+     */
+    public static void adviseRepository(Object bean, Function<RepositoryInformation, MethodInterceptor> interceptor) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, information) -> proxyFactory.addAdvice(interceptor.apply(information))));
+        }
+    }
+
+    /**
+     * @return MapStruct mapper interface the bean implements, null if it is not a mapper
+     */
+    public static Class<?> mapperInterface(Object bean) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(bean.getClass())) {
+            if (type.getPackageName().equals(MAPPER_PACKAGE)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * JDK proxy of the bean, as the given interface, calling the interceptor first
+     */
+    public static Object proxy(Object bean, Class<?> type, MethodInterceptor interceptor) {
+        ProxyFactory factory = new ProxyFactory();
+        factory.setTarget(bean);
+        factory.setInterfaces(type);
+        factory.addAdvice(interceptor);
+        return factory.getProxy(bean.getClass().getClassLoader());
+    }
+}
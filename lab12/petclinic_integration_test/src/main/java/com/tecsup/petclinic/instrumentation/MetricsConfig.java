@@ -0,0 +1,58 @@
+package com.tecsup.petclinic.instrumentation;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Timers of the service and repository layers. Both come with an exception
+ * tag; an outcome tag derived from it separates the not-found calls (404s)
+ * from successes and real errors.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Timer of every public method of the *ServiceImpl classes (@Timed)
+     */
+    public static final String SERVICE_TIMER = "petclinic.service";
+
+    /**
+     * Timer of every Spring Data repository call, registered by Spring Boot
+     */
+    public static final String REPOSITORY_TIMER = "spring.data.repository.invocations";
+
+    public static final String OUTCOME_TAG = "outcome";
+
+    @Bean
+    public MeterFilter outcomeTagFilter() {
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                if (!SERVICE_TIMER.equals(id.getName()) && !REPOSITORY_TIMER.equals(id.getName())) {
+                    return id;
+                }
+                String exception = id.getTag("exception");
+                if (exception == null || id.getTag(OUTCOME_TAG) != null) {
+                    return id;
+                }
+                return id.withTag(Tag.of(OUTCOME_TAG, outcome(exception)));
+            }
+        };
+    }
+
+    static String outcome(String exception) {
+        if ("none".equalsIgnoreCase(exception)) {
+            return "SUCCESS";
+        }
+        if (exception.endsWith("NotFoundException")) {
+            return "NOT_FOUND";
+        }
+        if (exception.equals("VersionConflictException") || exception.endsWith("OptimisticLockingFailureException")) {
+            return "CONFLICT";
+        }
+        return "ERROR";
+    }
+}
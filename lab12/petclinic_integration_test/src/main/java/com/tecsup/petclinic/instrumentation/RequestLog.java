@@ -0,0 +1,95 @@
+package com.tecsup.petclinic.instrumentation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Structured logging for the request path.
+ *
+ * Lines are written as "event=... key=value ..." on the petclinic.requests
+ * logger: every call at DEBUG, one call in {@code sampleEvery} at INFO, nothing
+ * otherwise. Values are rendered flat: collections and maps by their size,
+ * numbers, strings, enums and dates as they are, anything else only by its type,
+ * so an entity graph is never walked (and never lazy loaded) to build a log line.
+ */
+public final class RequestLog {
+
+    private static final Logger log = LoggerFactory.getLogger("com.tecsup.petclinic.requests");
+
+    public static final int DEFAULT_SAMPLE_EVERY = 100;
+
+    private static volatile int sampleEvery = DEFAULT_SAMPLE_EVERY;
+
+    private RequestLog() {
+    }
+
+    /**
+     * @param every log one INFO line out of {@code every} calls, 0 to log none
+     */
+    public static void setSampleEvery(int every) {
+        sampleEvery = Math.max(every, 0);
+    }
+
+    /**
+     * Log the size of a result, e.g. {@code RequestLog.result("pets.page", page.getItems(), "size", size)}
+     */
+    public static void result(String event, Collection<?> items, Object... keyValues) {
+        if (enabled()) {
+            write(event, "count", items != null ? items.size() : 0, keyValues);
+        }
+    }
+
+    public static void event(String event, Object... keyValues) {
+        if (enabled()) {
+            write(event, null, null, keyValues);
+        }
+    }
+
+    private static boolean enabled() {
+        if (log.isDebugEnabled()) {
+            return true;
+        }
+        int every = sampleEvery;
+        return every > 0 && log.isInfoEnabled() && ThreadLocalRandom.current().nextInt(every) == 0;
+    }
+
+    private static void write(String event, String firstKey, Object firstValue, Object[] keyValues) {
+        StringBuilder line = new StringBuilder(64).append("event=").append(event);
+        if (firstKey != null) {
+            append(line, firstKey, firstValue);
+        }
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            append(line, String.valueOf(keyValues[i]), keyValues[i + 1]);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(line.toString());
+        } else {
+            log.info(line.toString());
+        }
+    }
+
+    private static void append(StringBuilder line, String key, Object value) {
+        line.append(' ').append(key).append('=').append(render(value));
+    }
+
+    private static String render(Object value) {
+        if (value == null) {
+            return "-";
+        }
+        if (value instanceof Collection<?> collection) {
+            return String.valueOf(collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return String.valueOf(map.size());
+        }
+        if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Enum<?> || value instanceof java.time.temporal.Temporal) {
+            return value.toString();
+        }
+        return value.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,15 @@
+package com.tecsup.petclinic.instrumentation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies petclinic.request-log.sample-every to {@link RequestLog}
+ */
+@Configuration
+public class RequestLogConfig {
+
+    public RequestLogConfig(@Value("${petclinic.request-log.sample-every:" + RequestLog.DEFAULT_SAMPLE_EVERY + "}") int sampleEvery) {
+        RequestLog.setSampleEvery(sampleEvery);
+    }
+}
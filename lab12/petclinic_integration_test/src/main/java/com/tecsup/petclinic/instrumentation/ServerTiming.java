@@ -0,0 +1,114 @@
+package com.tecsup.petclinic.instrumentation;
+
+import java.util.Locale;
+
+/**
+ * Time spent by the current request in repository calls, mappers and JSON
+ * serialization, rendered as a Server-Timing header value.
+ *
+ * Timing only happens while a scope is open (one per request, see
+ * {@link ServerTimingFilter}). Nested calls of the same phase, e.g. VetMapper
+ * calling SpecialtyMapper, are counted once by the outermost call.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    public enum Phase {
+        DB("db"), MAPPING("mapping"), SERIALIZATION("serialization");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private ServerTiming() {
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope();
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * @return scope of the current request, null when none is open
+     */
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final long start = System.nanoTime();
+        private final long[] nanos = new long[Phase.values().length];
+        private final int[] calls = new int[Phase.values().length];
+        private final int[] depth = new int[Phase.values().length];
+
+        private Scope() {
+        }
+
+        /**
+         * @return true for the outermost call of the phase, the only one timed
+         */
+        public boolean enter(Phase phase) {
+            return depth[phase.ordinal()]++ == 0;
+        }
+
+        public void exit(Phase phase, boolean outermost, long elapsedNanos) {
+            depth[phase.ordinal()]--;
+            if (outermost) {
+                nanos[phase.ordinal()] += elapsedNanos;
+                calls[phase.ordinal()]++;
+            }
+        }
+
+        public long getNanos(Phase phase) {
+            return nanos[phase.ordinal()];
+        }
+
+        public long getTotalNanos() {
+            return System.nanoTime() - start;
+        }
+
+        /**
+         * e.g. {@code db;dur=2.41;desc="3 calls", mapping;dur=0.32, serialization;dur=0.57, app;dur=1.02, total;dur=4.32}
+         */
+        public String header() {
+            long total = getTotalNanos();
+            long app = total;
+            StringBuilder header = new StringBuilder(128);
+            for (Phase phase : Phase.values()) {
+                int calls = this.calls[phase.ordinal()];
+                if (calls == 0) {
+                    continue;
+                }
+                long phaseNanos = nanos[phase.ordinal()];
+                app -= phaseNanos;
+                append(header, phase.metric, phaseNanos);
+                if (phase == Phase.DB) {
+                    header.append(";desc=\"").append(calls).append(calls == 1 ? " call\"" : " calls\"");
+                }
+            }
+            append(header, "app", Math.max(app, 0));
+            append(header, "total", total);
+            return header.toString();
+        }
+
+        private static void append(StringBuilder header, String metric, long nanos) {
+            if (!header.isEmpty()) {
+                header.append(", ");
+            }
+            header.append(metric).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1e6));
+        }
+
+        @Override
+        public void close() {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.tecsup.petclinic.instrumentation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Wires the Server-Timing header: the request filter, the timed JSON converter
+ * (replacing Spring Boot's) and the repository and mapper interceptors.
+ *
+ * Off unless petclinic.server-timing.enabled is set (h2 profile): the converter
+ * buffers each JSON body, and the header shows internal timings to any client.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "petclinic.server-timing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ServerTimingProperties.class)
+public class ServerTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ServerTimingProperties properties) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter(properties));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new ServerTimingJacksonConverter(objectMapper);
+    }
+
+    @Bean
+    public static BeanPostProcessor serverTimingPostProcessor() {
+        return new ServerTimingPostProcessor();
+    }
+}
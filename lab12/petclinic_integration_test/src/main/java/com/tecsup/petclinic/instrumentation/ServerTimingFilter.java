@@ -0,0 +1,45 @@
+package com.tecsup.petclinic.instrumentation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens the timing scope of each request. JSON responses get their
+ * Server-Timing header from {@link ServerTimingJacksonConverter}, once the body
+ * is serialized; responses without a body get it here.
+ */
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final ServerTimingProperties properties;
+
+    public ServerTimingFilter(ServerTimingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (ServerTiming.Scope scope = ServerTiming.open()) {
+            filterChain.doFilter(request, response);
+            if (!response.isCommitted() && !response.containsHeader(ServerTiming.HEADER)) {
+                response.setHeader(ServerTiming.HEADER, scope.header());
+            }
+            if (log.isDebugEnabled() && scope.getTotalNanos() >= properties.getLogThreshold().toNanos()) {
+                log.debug("Slow request: {} {} status={} {}", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), scope.header());
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.tecsup.petclinic.instrumentation;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Adds the time of the intercepted calls to a phase of the request's Server-Timing
+ */
+class ServerTimingInterceptor implements MethodInterceptor {
+
+    private final ServerTiming.Phase phase;
+
+    ServerTimingInterceptor(ServerTiming.Phase phase) {
+        this.phase = phase;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ServerTiming.Scope scope = ServerTiming.current();
+        if (scope == null) {
+            return invocation.proceed();
+        }
+        boolean outermost = scope.enter(phase);
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            scope.exit(phase, outermost, System.nanoTime() - start);
+        }
+    }
+}
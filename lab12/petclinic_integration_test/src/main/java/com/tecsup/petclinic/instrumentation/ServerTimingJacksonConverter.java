@@ -0,0 +1,53 @@
+package com.tecsup.petclinic.instrumentation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * JSON converter timing its own serialization. While a timing scope is open
+ * the body is serialized to a buffer first, so the Server-Timing header can
+ * still be added, with the serialization time, before the body is sent.
+ */
+public class ServerTimingJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public ServerTimingJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        ServerTiming.Scope scope = ServerTiming.current();
+        if (scope == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        boolean outermost = scope.enter(ServerTiming.Phase.SERIALIZATION);
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return buffer;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return outputMessage.getHeaders();
+                }
+            });
+        } finally {
+            scope.exit(ServerTiming.Phase.SERIALIZATION, outermost, System.nanoTime() - start);
+        }
+        outputMessage.getHeaders().set(ServerTiming.HEADER, scope.header());
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,23 @@
+package com.tecsup.petclinic.instrumentation;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Times the repositories (DB phase) and the MapStruct mappers (mapping phase).
+ * Outside a request scope the interceptors only look up the thread local.
+ */
+class ServerTimingPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        InstrumentedBeans.adviseRepository(bean, information -> new ServerTimingInterceptor(ServerTiming.Phase.DB));
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> mapper = InstrumentedBeans.mapperInterface(bean);
+        return mapper == null ? bean
+                : InstrumentedBeans.proxy(bean, mapper, new ServerTimingInterceptor(ServerTiming.Phase.MAPPING));
+    }
+}
@@ -0,0 +1,25 @@
+package com.tecsup.petclinic.instrumentation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the Server-Timing response header (petclinic.server-timing.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "petclinic.server-timing")
+public class ServerTimingProperties {
+
+    /**
+     * Time repository calls, mappers and serialization, and return them in Server-Timing.
+     * Read at startup, nothing is wired while false.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Requests slower than this are logged at DEBUG with their breakdown
+     */
+    private Duration logThreshold = Duration.ofMillis(500);
+}
@@ -0,0 +1,43 @@
+package com.tecsup.petclinic.instrumentation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens a statement counting scope around each request and logs a warning,
+ * with the statements that were repeated, when the request goes over budget.
+ * Repeated statements are the usual signature of an N+1.
+ */
+@Slf4j
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private final SqlBudgetProperties properties;
+
+    public SqlBudgetFilter(SqlBudgetProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            filterChain.doFilter(request, response);
+            if (scope.getCount() > properties.getMaxStatements()) {
+                log.warn("SQL budget exceeded: {} {} ran {} statements (budget {}), repeated: {}",
+                        request.getMethod(), request.getRequestURI(), scope.getCount(),
+                        properties.getMaxStatements(), scope.getRepeatedStatements());
+            }
+        }
+    }
+}
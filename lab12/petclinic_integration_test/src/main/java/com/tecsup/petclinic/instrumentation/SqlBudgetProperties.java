@@ -0,0 +1,29 @@
+package com.tecsup.petclinic.instrumentation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the per-request SQL statement budget (petclinic.sql-budget.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "petclinic.sql-budget")
+public class SqlBudgetProperties {
+
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    /**
+     * Count statements per request and warn when the budget is exceeded
+     */
+    private boolean enabled = true;
+
+    /**
+     * Statements a single request may run before a warning is logged
+     */
+    private int maxStatements = 20;
+
+    /**
+     * Return the statement count in the X-SQL-Statement-Count header (non-prod only)
+     */
+    private boolean exposeHeader = false;
+}
@@ -0,0 +1,39 @@
+package com.tecsup.petclinic.instrumentation;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Writes the statements run so far by the request in the X-SQL-Statement-Count
+ * header, just before the body is serialized (headers cannot be added later).
+ */
+@ControllerAdvice
+public class SqlBudgetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final SqlBudgetProperties properties;
+
+    public SqlBudgetResponseAdvice(SqlBudgetProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.isEnabled() && properties.isExposeHeader();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int count = SqlStatementCounter.currentCount();
+        if (count >= 0) {
+            response.getHeaders().set(SqlBudgetProperties.HEADER, String.valueOf(count));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,110 @@
+package com.tecsup.petclinic.instrumentation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements prepared by Hibernate on the current thread.
+ *
+ * Counting only happens while a scope is open. Scopes nest: a test can open an
+ * outer scope around several requests, each request opening its own inner scope;
+ * when an inner scope closes its statements are added to the outer one, which
+ * also remembers the most expensive inner scope.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * @return statements counted so far by the innermost open scope, -1 if none is open
+     */
+    public static int currentCount() {
+        Scope scope = CURRENT.get();
+        return scope != null ? scope.count : -1;
+    }
+
+    static void record(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.record(sql);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final Map<String, Integer> statements = new HashMap<>();
+        private int count;
+        private int maxChildCount = -1;
+        private Map<String, Integer> maxChildStatements = Collections.emptyMap();
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        private void record(String sql) {
+            count++;
+            statements.merge(sql, 1, Integer::sum);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return count of the most expensive nested scope, or of this scope when none was nested
+         */
+        public int getMaxChildCount() {
+            return maxChildCount >= 0 ? maxChildCount : count;
+        }
+
+        /**
+         * @return statements run more than once in this scope, most repeated first
+         */
+        public Map<String, Integer> getRepeatedStatements() {
+            return repeated(statements);
+        }
+
+        /**
+         * @return statements run more than once in the most expensive nested scope
+         */
+        public Map<String, Integer> getMaxChildRepeatedStatements() {
+            return maxChildCount >= 0 ? repeated(maxChildStatements) : getRepeatedStatements();
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+                return;
+            }
+            CURRENT.set(parent);
+            parent.count += count;
+            statements.forEach((sql, times) -> parent.statements.merge(sql, times, Integer::sum));
+            if (count > parent.maxChildCount) {
+                parent.maxChildCount = count;
+                parent.maxChildStatements = statements;
+            }
+        }
+
+        private static Map<String, Integer> repeated(Map<String, Integer> statements) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            statements.entrySet().stream()
+                    .filter(entry -> entry.getValue() > 1)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+            return repeated;
+        }
+    }
+}
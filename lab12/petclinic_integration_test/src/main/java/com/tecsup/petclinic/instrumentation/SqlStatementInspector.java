@@ -0,0 +1,18 @@
+package com.tecsup.petclinic.instrumentation;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Feeds every SQL statement prepared by Hibernate to the {@link SqlStatementCounter}
+ * of the current thread. The SQL itself is returned unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementCounter.record(sql);
+        return sql;
+    }
+}
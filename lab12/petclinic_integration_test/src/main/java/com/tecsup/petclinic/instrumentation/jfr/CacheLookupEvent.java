@@ -0,0 +1,28 @@
+package com.tecsup.petclinic.instrumentation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One lookup in the PetDTO cache
+ */
+@Name("com.tecsup.petclinic.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Petclinic", "Cache"})
+@Description("Lookup in an application cache, loading on a miss included unless the cache is async")
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    String key;
+
+    @Label("Hit")
+    boolean hit;
+}
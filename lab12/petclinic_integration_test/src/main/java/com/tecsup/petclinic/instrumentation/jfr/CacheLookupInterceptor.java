@@ -0,0 +1,64 @@
+package com.tecsup.petclinic.instrumentation.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Emits a {@link CacheLookupEvent} per getIfPresent / get(key, loader) on a
+ * Caffeine cache. A get is a miss when the cache had to call the loader; on
+ * an AsyncCache the loader only returns the future, the event ends with the
+ * lookup and does not include the load.
+ */
+class CacheLookupInterceptor implements MethodInterceptor {
+
+    private final String cache;
+
+    CacheLookupInterceptor(String cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String name = invocation.getMethod().getName();
+        Object[] args = invocation.getArguments();
+        boolean get = name.equals("get") && args.length == 2
+                && (args[1] instanceof Function || args[1] instanceof BiFunction);
+        if (!get && !name.equals("getIfPresent")) {
+            return invocation.proceed();
+        }
+
+        CacheLookupEvent event = new CacheLookupEvent();
+        boolean[] loaded = new boolean[1];
+        if (get && args[1] instanceof Function) {
+            Function<Object, Object> loader = (Function<Object, Object>) args[1];
+            args[1] = (Function<Object, Object>) key -> {
+                loaded[0] = true;
+                return loader.apply(key);
+            };
+        } else if (get) {
+            BiFunction<Object, Object, Object> loader = (BiFunction<Object, Object, Object>) args[1];
+            args[1] = (BiFunction<Object, Object, Object>) (key, executor) -> {
+                loaded[0] = true;
+                return loader.apply(key, executor);
+            };
+        }
+        event.begin();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.cache = cache;
+                event.key = String.valueOf(args[0]);
+                event.hit = get ? !loaded[0] : result != null;
+                event.commit();
+            }
+        }
+    }
+}
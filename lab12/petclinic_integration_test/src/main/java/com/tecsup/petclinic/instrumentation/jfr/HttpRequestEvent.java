@@ -0,0 +1,32 @@
+package com.tecsup.petclinic.instrumentation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One HTTP request, from the first filter to the response
+ */
+@Name("com.tecsup.petclinic.HttpRequest")
+@Label("HTTP Request")
+@Category({"Petclinic", "HTTP"})
+@Description("Handling of one HTTP request, filter chain included")
+@StackTrace(false)
+public class HttpRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Pattern")
+    @Description("Handler mapping pattern, e.g. /pets/{id}")
+    String pattern;
+
+    @Label("Status")
+    int status;
+}
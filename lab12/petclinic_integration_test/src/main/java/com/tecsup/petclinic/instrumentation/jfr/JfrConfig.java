@@ -0,0 +1,38 @@
+package com.tecsup.petclinic.instrumentation.jfr;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+/**
+ * JDK Flight Recorder events of the request path (category Petclinic): HTTP
+ * requests, repository calls, mappings and PetDTO cache lookups.
+ *
+ * Only wired with the jfr profile, without it nothing is intercepted. With it,
+ * an event costs its allocation until a recording enables it, e.g.
+ * <pre>
+ * java -XX:StartFlightRecording=filename=petclinic.jfr,settings=profile -jar petclinic.jar --spring.profiles.active=h2,jfr
+ * jfr print --categories Petclinic petclinic.jfr
+ * </pre>
+ */
+@Configuration
+@Profile("jfr")
+public class JfrConfig {
+
+    @Bean
+    public FilterRegistrationBean<HttpRequestEventFilter> httpRequestEventFilter() {
+        FilterRegistrationBean<HttpRequestEventFilter> registration = new FilterRegistrationBean<>(new HttpRequestEventFilter());
+        registration.addUrlPatterns("/*");
+        // Outermost, so the event covers the other filters too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor jfrEventsPostProcessor() {
+        return new JfrEventsPostProcessor();
+    }
+}
@@ -0,0 +1,36 @@
+package com.tecsup.petclinic.instrumentation.jfr;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.tecsup.petclinic.instrumentation.InstrumentedBeans;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Adds the JFR interceptors to the repositories (through their factory beans),
+ * to the MapStruct mappers and to the PetDTO cache
+ */
+class JfrEventsPostProcessor implements BeanPostProcessor {
+
+    private static final String PET_CACHE_BEAN = "petCache";
+
+    private static final String PET_ASYNC_CACHE_BEAN = "petAsyncCache";
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        InstrumentedBeans.adviseRepository(bean,
+                information -> new RepositoryCallInterceptor(information.getRepositoryInterface()));
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Cache<?, ?> && PET_CACHE_BEAN.equals(beanName)) {
+            return InstrumentedBeans.proxy(bean, Cache.class, new CacheLookupInterceptor(beanName));
+        }
+        if (bean instanceof AsyncCache<?, ?> && PET_ASYNC_CACHE_BEAN.equals(beanName)) {
+            return InstrumentedBeans.proxy(bean, AsyncCache.class, new CacheLookupInterceptor(PET_CACHE_BEAN));
+        }
+        Class<?> mapper = InstrumentedBeans.mapperInterface(bean);
+        return mapper == null ? bean : InstrumentedBeans.proxy(bean, mapper, new MappingInterceptor(mapper));
+    }
+}
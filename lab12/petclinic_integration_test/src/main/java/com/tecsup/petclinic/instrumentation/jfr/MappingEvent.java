@@ -0,0 +1,29 @@
+package com.tecsup.petclinic.instrumentation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call of a MapStruct mapper, between entities and DTOs
+ */
+@Name("com.tecsup.petclinic.Mapping")
+@Label("Mapping")
+@Category({"Petclinic", "Mapping"})
+@Description("Entity/DTO conversion by a MapStruct mapper")
+@StackTrace(false)
+public class MappingEvent extends Event {
+
+    @Label("Mapper")
+    String mapper;
+
+    @Label("Method")
+    String method;
+
+    @Label("Rows")
+    @Description("Objects produced: the list size for list mappings, 1 otherwise")
+    long rows;
+}
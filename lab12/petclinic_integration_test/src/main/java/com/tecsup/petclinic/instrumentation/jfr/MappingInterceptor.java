@@ -0,0 +1,38 @@
+package com.tecsup.petclinic.instrumentation.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Collection;
+
+/**
+ * Emits a {@link MappingEvent} per mapper method call. Calls a mapper makes
+ * on itself (mapToDto from mapToDtoList) are part of the outer event.
+ */
+class MappingInterceptor implements MethodInterceptor {
+
+    private final String mapper;
+
+    MappingInterceptor(Class<?> mapperInterface) {
+        this.mapper = mapperInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MappingEvent event = new MappingEvent();
+        event.begin();
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.mapper = mapper;
+                event.method = invocation.getMethod().getName();
+                event.rows = result instanceof Collection<?> collection ? collection.size() : result != null ? 1 : 0;
+                event.commit();
+            }
+        }
+    }
+}
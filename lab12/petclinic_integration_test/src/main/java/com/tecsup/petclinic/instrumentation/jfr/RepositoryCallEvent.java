@@ -0,0 +1,33 @@
+package com.tecsup.petclinic.instrumentation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One call of a Spring Data repository method
+ */
+@Name("com.tecsup.petclinic.RepositoryCall")
+@Label("Repository Call")
+@Category({"Petclinic", "Data"})
+@Description("Spring Data repository method call, query execution and entity loading included")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Query")
+    @Description("Repository method, e.g. findById or findPageAfter")
+    String query;
+
+    @Label("Rows")
+    @Description("Rows returned, or updated by a modifying query")
+    long rows;
+
+    @Label("Exception")
+    String exception;
+}
@@ -0,0 +1,67 @@
+package com.tecsup.petclinic.instrumentation.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Emits a {@link RepositoryCallEvent} per repository method call
+ */
+class RepositoryCallInterceptor implements MethodInterceptor {
+
+    private final String repository;
+
+    RepositoryCallInterceptor(Class<?> repositoryInterface) {
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.begin();
+        Object result = null;
+        Throwable error = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repository;
+                event.query = invocation.getMethod().getName();
+                event.rows = rows(result);
+                event.exception = error != null ? error.getClass().getSimpleName() : null;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Rows of a repository result. Numbers are taken as they are: rows updated
+     * by a modifying query, or the value of a count.
+     */
+    static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,45 @@
+package com.tecsup.petclinic.instrumentation.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * A span per controller handler and per service call, named after the class
+ * and method (VisitController.create, PetServiceImpl.findPetById), child of
+ * the HTTP server span. Calls a bean makes on itself are not traced.
+ */
+@Aspect
+public class TracingAspect {
+
+    private final Tracer tracer;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("(@within(org.springframework.web.bind.annotation.RestController) && execution(* com.tecsup.petclinic.webs..*(..)))"
+            + " || (@within(org.springframework.stereotype.Service) && execution(* com.tecsup.petclinic.services..*(..)))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        Span span = tracer.nextSpan();
+        if (span.isNoop()) {
+            return joinPoint.proceed();
+        }
+        Signature signature = joinPoint.getSignature();
+        span.name(signature.getDeclaringType().getSimpleName() + "." + signature.getName())
+                .tag("code.namespace", signature.getDeclaringTypeName())
+                .tag("code.function", signature.getName())
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.tecsup.petclinic.instrumentation.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.Tracer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Spans of the controllers and services, and the offline exporters. Spring
+ * Boot adds every SpanExporter bean to the OpenTelemetry tracer provider; the
+ * HTTP server spans and the JDBC spans (datasource-micrometer) are its own.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    @Bean
+    public TracingAspect tracingAspect(Tracer tracer) {
+        return new TracingAspect(tracer);
+    }
+
+    @Bean
+    public RecentSpansExporter recentSpansExporter(TracingProperties properties) {
+        return new RecentSpansExporter(properties.getMemoryCapacity());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "petclinic.tracing", name = "file")
+    public FileSpanExporter fileSpanExporter(TracingProperties properties, ObjectMapper objectMapper) {
+        return new FileSpanExporter(properties.getFile(), objectMapper);
+    }
+}
@@ -0,0 +1,25 @@
+package com.tecsup.petclinic.instrumentation.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Offline span exporters (petclinic.tracing.*). The sampling rate is Spring
+ * Boot's management.tracing.sampling.probability.
+ */
+@Data
+@ConfigurationProperties(prefix = "petclinic.tracing")
+public class TracingProperties {
+
+    /**
+     * Append finished spans to this file, one JSON object per line. No file when unset.
+     */
+    private Path file;
+
+    /**
+     * Finished spans kept in memory by {@link RecentSpansExporter}, 0 to keep none
+     */
+    private int memoryCapacity = 1000;
+}
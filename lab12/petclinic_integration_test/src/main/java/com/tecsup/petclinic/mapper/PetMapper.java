@@ -2,15 +2,14 @@ package com.tecsup.petclinic.mapper;
 
 import com.tecsup.petclinic.dtos.PetDTO;
 import com.tecsup.petclinic.entities.Pet;
-import lombok.extern.slf4j.Slf4j;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.NullValueMappingStrategy;
 import org.mapstruct.factory.Mappers;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 
@@ -19,39 +18,31 @@ public interface PetMapper {
 
 	PetMapper INSTANCE = Mappers.getMapper(PetMapper.class);
 
+	/**
+	 * yyyy-MM-dd, immutable and thread-safe: one instance serves every mapped row
+	 */
+	DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+
 	//@Mapping(target = "name", source = "name")
 	@Mapping(source = "birthDate", target = "birthDate")
 	Pet mapToEntity(PetDTO petTO);
 
-    default Date stringToDate(String dateStr) {
-        System.out.println("Converting string to date: " + dateStr);
-
-        if (dateStr == null || dateStr.isEmpty()) {
-            return null;
-        }
-
-        Date date = null;
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-        try {
-            date = dateFormat.parse(dateStr);
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-        return date;
+	/**
+	 * @throws DateTimeParseException if not yyyy-MM-dd, answered 400 by RestExceptionHandler
+	 */
+	default LocalDate stringToDate(String dateStr) {
+
+		if (dateStr == null || dateStr.isEmpty()) {
+			return null;
+		}
+		return LocalDate.parse(dateStr, DATE_FORMAT);
 	}
 
 	@Mapping(source = "birthDate", target = "birthDate")
 	PetDTO mapToDto(Pet pet);
 
-	default String dateToString(Date date) {
-
-		if (date != null ) {
-			SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-			return dateFormat.format(date);
-		} else {
-			return "";
-		}
-
+	default String dateToString(LocalDate date) {
+		return date != null ? DATE_FORMAT.format(date) : "";
 	}
 
 	List<PetDTO> mapToDtoList(List<Pet> petList);
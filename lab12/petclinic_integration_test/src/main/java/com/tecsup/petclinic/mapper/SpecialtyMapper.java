@@ -0,0 +1,31 @@
+package com.tecsup.petclinic.mapper;
+
+import com.tecsup.petclinic.dtos.SpecialtyDTO;
+import com.tecsup.petclinic.entities.Specialty;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.NullValueMappingStrategy;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.Set;
+
+@Mapper(componentModel = "spring", nullValueMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT)
+public interface SpecialtyMapper {
+
+	SpecialtyMapper INSTANCE = Mappers.getMapper(SpecialtyMapper.class);
+
+	// The inverse side of Vet.specialties is never written from a DTO
+	@Mapping(target = "vets", ignore = true)
+	Specialty mapToEntity(SpecialtyDTO specialtyDTO);
+
+	SpecialtyDTO mapToDto(Specialty specialty);
+
+	List<SpecialtyDTO> mapToDtoList(List<Specialty> specialtyList);
+
+	List<Specialty> mapToEntityList(List<SpecialtyDTO> specialtyDTOList);
+
+	Set<SpecialtyDTO> mapToDtoSet(Set<Specialty> specialties);
+
+	Set<Specialty> mapToEntitySet(Set<SpecialtyDTO> specialtyDTOs);
+}
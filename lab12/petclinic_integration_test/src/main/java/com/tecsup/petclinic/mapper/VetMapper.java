@@ -0,0 +1,25 @@
+package com.tecsup.petclinic.mapper;
+
+import com.tecsup.petclinic.dtos.VetDTO;
+import com.tecsup.petclinic.entities.Vet;
+import org.mapstruct.Mapper;
+import org.mapstruct.NullValueMappingStrategy;
+
+import java.util.List;
+
+/**
+ * Specialties go through SpecialtyMapper, so this mapper is only usable as a
+ * Spring bean (no INSTANCE, the generated class needs the injected SpecialtyMapper)
+ */
+@Mapper(componentModel = "spring", uses = SpecialtyMapper.class,
+		nullValueMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT)
+public interface VetMapper {
+
+	Vet mapToEntity(VetDTO vetDTO);
+
+	VetDTO mapToDto(Vet vet);
+
+	List<VetDTO> mapToDtoList(List<Vet> vetList);
+
+	List<Vet> mapToEntityList(List<VetDTO> vetDTOList);
+}
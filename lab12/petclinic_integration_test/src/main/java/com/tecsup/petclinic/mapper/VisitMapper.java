@@ -0,0 +1,39 @@
+package com.tecsup.petclinic.mapper;
+
+import com.tecsup.petclinic.dtos.VisitDTO;
+import com.tecsup.petclinic.entities.Visit;
+import com.tecsup.petclinic.entities.VisitRow;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.NullValueMappingStrategy;
+import org.mapstruct.factory.Mappers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Mapper(componentModel = "spring", nullValueMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT)
+public interface VisitMapper {
+
+	VisitMapper INSTANCE = Mappers.getMapper(VisitMapper.class);
+
+	// The pet is resolved by the caller from petId, it must exist
+	@Mapping(target = "pet", ignore = true)
+	@Mapping(target = "version", ignore = true)
+	Visit mapToEntity(VisitDTO visitDTO);
+
+	@Mapping(source = "pet.id", target = "petId")
+	VisitDTO mapToDto(Visit visit);
+
+	// Rows of the reactive read path, see ReactiveVisitRepository
+	VisitDTO rowToDto(VisitRow row);
+
+	default LocalDate stringToDate(String dateStr) {
+		return dateStr != null ? LocalDate.parse(dateStr, PetMapper.DATE_FORMAT) : null;
+	}
+
+	default String dateToString(LocalDate date) {
+		return date != null ? PetMapper.DATE_FORMAT.format(date) : null;
+	}
+
+	List<VisitDTO> mapToDtoList(List<Visit> visitList);
+}
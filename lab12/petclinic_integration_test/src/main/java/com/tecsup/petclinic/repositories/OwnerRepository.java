@@ -1,10 +1,17 @@
 package com.tecsup.petclinic.repositories;
 
+import com.tecsup.petclinic.dtos.OwnerDTO;
 import com.tecsup.petclinic.entities.Owner;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for Owner entity
@@ -20,4 +27,42 @@ public interface OwnerRepository extends JpaRepository<Owner, Long> {
 
     @Override
     List<Owner> findAll();
+
+    /**
+     * Keyset page read as OwnerDTOs straight from the selected columns
+     */
+    @Query("SELECT new com.tecsup.petclinic.dtos.OwnerDTO(o.id, o.firstName, o.lastName, o.address, o.city, o.telephone, o.version) " +
+            "FROM owners o WHERE o.id > :id ORDER BY o.id")
+    List<OwnerDTO> findDtoPageAfter(@Param("id") Long id, Limit limit);
+
+    /**
+     * Only the version of an owner, enough to answer a conditional GET
+     */
+    @Query("SELECT o.version FROM owners o WHERE o.id = :id")
+    Optional<Integer> findVersionById(@Param("id") Long id);
+
+    /**
+     * Apply the non null fields in one UPDATE, only if the owner is still at the given version
+     *
+     * @return 1 if updated, 0 if the owner does not exist or has another version
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE owners o SET o.firstName = COALESCE(:firstName, o.firstName), o.lastName = COALESCE(:lastName, o.lastName), " +
+            "o.address = COALESCE(:address, o.address), o.city = COALESCE(:city, o.city), " +
+            "o.telephone = COALESCE(:telephone, o.telephone), o.version = o.version + 1 " +
+            "WHERE o.id = :id AND o.version = :version")
+    int patch(@Param("id") Long id, @Param("version") int version, @Param("firstName") String firstName,
+              @Param("lastName") String lastName, @Param("address") String address, @Param("city") String city,
+              @Param("telephone") String telephone);
+
+    /**
+     * Delete in one statement
+     *
+     * @return 1 if deleted, 0 if there was no such row
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM owners o WHERE o.id = :id")
+    int deleteRowById(@Param("id") Long id);
 }
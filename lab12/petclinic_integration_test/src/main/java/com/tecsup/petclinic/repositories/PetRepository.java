@@ -1,11 +1,21 @@
 package com.tecsup.petclinic.repositories;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.tecsup.petclinic.dtos.PetDTO;
 import com.tecsup.petclinic.entities.Pet;
 
 /**
@@ -17,18 +27,56 @@ import com.tecsup.petclinic.entities.Pet;
 public interface PetRepository 
 	extends JpaRepository<Pet, Integer> {
 
+	// Read-only listings build PetDTOs straight from the selected columns:
+	// no entity instantiation, dirty-check snapshot or proxy per row
+	String SELECT_PET_DTO = "SELECT new com.tecsup.petclinic.dtos.PetDTO("
+			+ "p.id, p.name, p.typeId, p.ownerId, p.birthDate, p.version) FROM pets p ";
+
 	// Fetch pets by name
 	List<Pet> findByName(String name);
 
 	// Fetch pets by typeId
-	List<Pet> findByTypeId(int typeId);
+	@Query(SELECT_PET_DTO + "WHERE p.typeId = :typeId")
+	List<PetDTO> findDtoByTypeId(@Param("typeId") int typeId);
 
 	// Fetch pets by ownerId
-	List<Pet> findByOwnerId(int ownerId);
+	@Query(SELECT_PET_DTO + "WHERE p.ownerId = :ownerId")
+	List<PetDTO> findDtoByOwnerId(@Param("ownerId") int ownerId);
 
 	// Fetch pets by Id
 
 	@Override
 	List<Pet> findAll();
 
+	@Query(SELECT_PET_DTO + "ORDER BY p.id")
+	List<PetDTO> findAllDto();
+
+	// Fetch one keyset page: pets with id greater than the last seen id
+	@Query(SELECT_PET_DTO + "WHERE p.id > :id ORDER BY p.id")
+	List<PetDTO> findDtoPageAfter(@Param("id") Integer id, Limit limit);
+
+	// Only the version of a pet, enough to answer a conditional GET
+	@Query("SELECT p.version FROM pets p WHERE p.id = :id")
+	Optional<Integer> findVersionById(@Param("id") Integer id);
+
+	// Apply the non null fields in one UPDATE, only if the pet is still at the given version
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE pets p SET p.name = COALESCE(:name, p.name), p.typeId = COALESCE(:typeId, p.typeId), "
+			+ "p.ownerId = COALESCE(:ownerId, p.ownerId), p.birthDate = COALESCE(:birthDate, p.birthDate), "
+			+ "p.version = p.version + 1 WHERE p.id = :id AND p.version = :version")
+	int patch(@Param("id") Integer id, @Param("version") int version, @Param("name") String name,
+			  @Param("typeId") Integer typeId, @Param("ownerId") Integer ownerId, @Param("birthDate") LocalDate birthDate);
+
+	// Which of the given ids exist, in one set-based query
+	@Query("SELECT p.id FROM pets p WHERE p.id IN :ids")
+	Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+	// Delete in one statement, the row count tells whether the pet existed. Visits
+	// go through the database cascade; the persistence context is flushed before
+	// and cleared after, so no managed Visit outlives its row
+	@Transactional
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM pets p WHERE p.id = :id")
+	int deleteRowById(@Param("id") Integer id);
 }
@@ -1,8 +1,15 @@
 package com.tecsup.petclinic.repositories;
 
 import com.tecsup.petclinic.entities.PetType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,8 +19,20 @@ import java.util.List;
 @Repository
 public interface PetTypeRepository extends JpaRepository<PetType, Integer> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<PetType> findByName(String name);
 
     @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<PetType> findAll();
+
+    /**
+     * Delete in one statement
+     *
+     * @return 1 if deleted, 0 if there was no such row
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM types t WHERE t.id = :id")
+    int deleteRowById(@Param("id") Integer id);
 }
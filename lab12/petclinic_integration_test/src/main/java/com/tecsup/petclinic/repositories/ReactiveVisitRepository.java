@@ -0,0 +1,24 @@
+package com.tecsup.petclinic.repositories;
+
+import com.tecsup.petclinic.entities.VisitRow;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of the visits over R2DBC (reactive profile, see R2dbcConfig).
+ * Rows are fetched as the subscriber requests them.
+ */
+@RepositoryRestResource(exported = false)
+public interface ReactiveVisitRepository extends ReactiveCrudRepository<VisitRow, Long> {
+
+    /**
+     * @param afterId Last id already read, 0 for the first one
+     */
+    Flux<VisitRow> findByIdGreaterThanOrderById(Long afterId);
+
+    /**
+     * Visit history of a pet, oldest first
+     */
+    Flux<VisitRow> findByPetIdOrderByVisitDateAscIdAsc(Integer petId);
+}
@@ -1,10 +1,16 @@
 package com.tecsup.petclinic.repositories;
 
 import com.tecsup.petclinic.entities.Vet;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for Vet entity
@@ -18,4 +24,34 @@ public interface VetRepository extends JpaRepository<Vet, Integer> {
 
     @Override
     List<Vet> findAll();
+
+    List<Vet> findByIdGreaterThanOrderByIdAsc(Integer id, Limit limit);
+
+    /**
+     * Only the version of a vet, enough to answer a conditional GET
+     */
+    @Query("SELECT v.version FROM vets v WHERE v.id = :id")
+    Optional<Integer> findVersionById(@Param("id") Integer id);
+
+    /**
+     * Apply the non null fields in one UPDATE, only if the vet is still at the given version
+     *
+     * @return 1 if updated, 0 if the vet does not exist or has another version
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE vets v SET v.firstName = COALESCE(:firstName, v.firstName), v.lastName = COALESCE(:lastName, v.lastName), " +
+            "v.version = v.version + 1 WHERE v.id = :id AND v.version = :version")
+    int patch(@Param("id") Integer id, @Param("version") int version, @Param("firstName") String firstName,
+              @Param("lastName") String lastName);
+
+    /**
+     * Delete in one statement
+     *
+     * @return 1 if deleted, 0 if there was no such row
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM vets v WHERE v.id = :id")
+    int deleteRowById(@Param("id") Integer id);
 }
@@ -1,11 +1,21 @@
 package com.tecsup.petclinic.repositories;
 
+import com.tecsup.petclinic.dtos.VisitDTO;
 import com.tecsup.petclinic.entities.Visit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for Visit entity
@@ -13,8 +23,55 @@ import java.util.List;
 @Repository
 public interface VisitRepository extends JpaRepository<Visit, Long> {
 
+    /**
+     * Rows pulled from the JDBC cursor per round-trip while streaming
+     */
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Listings build VisitDTOs straight from the selected columns. v.pet.id is
+     * read from the pet_id foreign key, the pet row is never joined.
+     */
+    String SELECT_VISIT_DTO = "SELECT new com.tecsup.petclinic.dtos.VisitDTO("
+            + "v.id, v.visitDate, v.description, v.pet.id) FROM visits v ";
+
     List<Visit> findByVisitDate(LocalDate visitDate);
 
     @Override
     List<Visit> findAll();
+
+    /**
+     * First keyset page, ordered by (visit_date, id)
+     */
+    @Query(SELECT_VISIT_DTO + "ORDER BY v.visitDate, v.id")
+    List<VisitDTO> findDtoFirstPage(Limit limit);
+
+    /**
+     * Next keyset page: visits strictly after the (visit_date, id) of the last row seen
+     */
+    @Query(SELECT_VISIT_DTO + "WHERE v.visitDate > :visitDate " +
+            "OR (v.visitDate = :visitDate AND v.id > :id) ORDER BY v.visitDate, v.id")
+    List<VisitDTO> findDtoPageAfter(@Param("visitDate") LocalDate visitDate, @Param("id") Long id, Limit limit);
+
+    /**
+     * Forward-only cursor over every visit. Must be consumed inside a transaction
+     * and closed by the caller.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT v FROM visits v ORDER BY v.id")
+    Stream<Visit> streamAll();
+
+    /**
+     * Delete in one statement
+     *
+     * @return 1 if deleted, 0 if there was no such row
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM visits v WHERE v.id = :id")
+    int deleteRowById(@Param("id") Long id);
 }
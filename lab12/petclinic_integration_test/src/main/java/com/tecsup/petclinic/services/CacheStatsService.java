@@ -0,0 +1,17 @@
+package com.tecsup.petclinic.services;
+
+import com.tecsup.petclinic.dtos.CacheStatsDTO;
+
+import java.util.List;
+
+/**
+ * Service exposing cache statistics
+ */
+public interface CacheStatsService {
+
+    /**
+     * @return one entry per second-level cache region, the query cache totals
+     *         and the PetDTO cache of PetService
+     */
+    List<CacheStatsDTO> findAll();
+}
@@ -0,0 +1,60 @@
+package com.tecsup.petclinic.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tecsup.petclinic.config.PetCacheConfig;
+import com.tecsup.petclinic.dtos.CacheStatsDTO;
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.instrumentation.MetricsConfig;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the Hibernate statistics (hibernate.generate_statistics must be on,
+ * otherwise every counter stays at 0) and the stats of the PetDTO cache
+ */
+@Service
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class CacheStatsServiceImpl implements CacheStatsService {
+
+    static final String QUERY_CACHE = "query-cache";
+
+    private final Statistics statistics;
+
+    private final Cache<Integer, PetDTO> petCache;
+
+    public CacheStatsServiceImpl(EntityManagerFactory entityManagerFactory, Cache<Integer, PetDTO> petCache) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.petCache = petCache;
+    }
+
+    @Override
+    public List<CacheStatsDTO> findAll() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+
+        Arrays.stream(statistics.getSecondLevelCacheRegionNames()).sorted().forEach(region -> {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats != null) {
+                stats.add(CacheStatsDTO.of(region,
+                        regionStats.getHitCount(), regionStats.getMissCount(), regionStats.getPutCount()));
+            }
+        });
+
+        stats.add(CacheStatsDTO.of(QUERY_CACHE,
+                statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+
+        CacheStats petStats = petCache.stats();
+        stats.add(CacheStatsDTO.of(PetCacheConfig.PET_CACHE,
+                petStats.hitCount(), petStats.missCount(), petStats.loadSuccessCount()));
+
+        return stats;
+    }
+}
@@ -0,0 +1,269 @@
+package com.tecsup.petclinic.services;
+
+import com.tecsup.petclinic.dtos.OwnerDTO;
+import com.tecsup.petclinic.dtos.OwnerPatchDTO;
+import com.tecsup.petclinic.entities.Owner;
+import com.tecsup.petclinic.mapper.OwnerMapper;
+import com.tecsup.petclinic.repositories.OwnerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index of the owners for the typeahead search.
+ *
+ * Every owner is indexed under its normalized (lower case, no accents) first
+ * name, last name, both full name orders, city, each word of these, and the
+ * digits of its telephone. The terms live in a sorted map keyed by
+ * "term\0id", so the owners matching a prefix are one range scan, exact
+ * matches first. Built from the database once the application is ready and
+ * kept up to date by OwnerServiceImpl; rows written around the service (SQL
+ * scripts, DataGenerator after startup) are only picked up by {@link #rebuild()}.
+ *
+ * The service updates the index after each write has committed, so two
+ * concurrent writes to an owner can reach it in the other order. An entry is
+ * therefore only replaced by a higher version of the owner.
+ */
+@Component
+@Slf4j
+public class OwnerSearchIndex {
+
+    private static final char SEPARATOR = '\0';
+    private static final int REBUILD_BATCH = 1_000;
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Pattern PHONE = Pattern.compile("[\\d\\s()+.-]+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+
+    private final ConcurrentSkipListMap<String, Long> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, OwnerDTO> owners = new ConcurrentHashMap<>();
+
+    // Owners removed while a rebuild runs, which its pages may still contain
+    private final Set<Long> removedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    private final OwnerRepository ownerRepository;
+    private final OwnerMapper ownerMapper;
+
+    public OwnerSearchIndex(OwnerRepository ownerRepository, OwnerMapper ownerMapper) {
+        this.ownerRepository = ownerRepository;
+        this.ownerMapper = ownerMapper;
+    }
+
+    /**
+     * Index every owner of the database, reading them by keyset pages. Owners
+     * indexed meanwhile by the service are kept unless the page has a higher
+     * version, and owners removed meanwhile are not added back.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        long afterId = 0L;
+        int count = 0;
+        List<OwnerDTO> page;
+        removedDuringRebuild.clear();
+        rebuilding = true;
+        try {
+            do {
+                page = ownerRepository.findDtoPageAfter(afterId, Limit.of(REBUILD_BATCH));
+                for (OwnerDTO owner : page) {
+                    owners.compute(owner.getId(), (id, old) ->
+                            removedDuringRebuild.contains(id) ? old : newer(old, owner));
+                    afterId = owner.getId();
+                }
+                count += page.size();
+            } while (page.size() == REBUILD_BATCH);
+        } finally {
+            rebuilding = false;
+            removedDuringRebuild.clear();
+        }
+        log.info("owner search index: {} owners, {} terms in {} ms", count, terms.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Add or re-index a saved owner
+     */
+    public void put(Owner owner) {
+        put(ownerMapper.mapToDto(owner));
+    }
+
+    /**
+     * Apply the non null fields of a patch to an indexed owner older than newVersion
+     */
+    public void patch(Long id, int newVersion, OwnerPatchDTO patch) {
+        owners.computeIfPresent(id, (key, current) -> newer(current, patched(current, newVersion, patch)));
+    }
+
+    /**
+     * Remove a deleted owner. A rebuild running meanwhile is told first, so it
+     * skips the owner if its page was read before the delete.
+     */
+    public void remove(Long id) {
+        if (rebuilding) {
+            removedDuringRebuild.add(id);
+        }
+        owners.computeIfPresent(id, (key, old) -> {
+            removeTerms(old);
+            return null;
+        });
+    }
+
+    /**
+     * @param query Start of a name, city or telephone, case and accents ignored
+     * @param limit Maximum number of owners
+     * @return Owners with a term starting with the query, exact matches first
+     */
+    public List<OwnerDTO> search(String query, int limit) {
+        String prefix = normalizeQuery(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long id : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (ids.add(id) && ids.size() == limit) {
+                break;
+            }
+        }
+        List<OwnerDTO> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            OwnerDTO owner = owners.get(id);
+            if (owner != null) {
+                result.add(copy(owner));
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return owners.size();
+    }
+
+    private void put(OwnerDTO owner) {
+        OwnerDTO indexed = copy(owner);
+        owners.compute(indexed.getId(), (id, old) -> newer(old, indexed));
+    }
+
+    /**
+     * The entry to keep for an owner, called under its map lock: the owner if
+     * it is newer than the indexed one, with the terms moved over, else the old one
+     */
+    private OwnerDTO newer(OwnerDTO old, OwnerDTO owner) {
+        if (old == null) {
+            addTerms(owner);
+            return owner;
+        }
+        if (owner.getVersion() <= old.getVersion()) {
+            return old;
+        }
+        removeTerms(old);
+        addTerms(owner);
+        return owner;
+    }
+
+    private void addTerms(OwnerDTO owner) {
+        for (String term : termsOf(owner)) {
+            terms.put(term + SEPARATOR + owner.getId(), owner.getId());
+        }
+    }
+
+    private void removeTerms(OwnerDTO owner) {
+        for (String term : termsOf(owner)) {
+            terms.remove(term + SEPARATOR + owner.getId());
+        }
+    }
+
+    static Set<String> termsOf(OwnerDTO owner) {
+        Set<String> result = new LinkedHashSet<>();
+        String firstName = normalize(owner.getFirstName());
+        String lastName = normalize(owner.getLastName());
+        addWithWords(result, firstName);
+        addWithWords(result, lastName);
+        if (!firstName.isEmpty() && !lastName.isEmpty()) {
+            result.add(firstName + " " + lastName);
+            result.add(lastName + " " + firstName);
+        }
+        addWithWords(result, normalize(owner.getCity()));
+        if (owner.getTelephone() != null) {
+            String digits = NON_DIGITS.matcher(owner.getTelephone()).replaceAll("");
+            if (!digits.isEmpty()) {
+                result.add(digits);
+            }
+        }
+        return result;
+    }
+
+    private static void addWithWords(Set<String> result, String value) {
+        if (value.isEmpty()) {
+            return;
+        }
+        result.add(value);
+        for (String word : value.split(" ")) {
+            result.add(word);
+        }
+    }
+
+    /**
+     * Lower case, accents removed, single spaces
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String plain = ACCENTS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(plain.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    /**
+     * A query made of digits and phone punctuation is searched as telephone digits
+     */
+    static String normalizeQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        if (PHONE.matcher(query).matches()) {
+            return NON_DIGITS.matcher(query).replaceAll("");
+        }
+        return normalize(query);
+    }
+
+    private static OwnerDTO patched(OwnerDTO current, int newVersion, OwnerPatchDTO patch) {
+        OwnerDTO patched = copy(current);
+        if (patch.getFirstName() != null) {
+            patched.setFirstName(patch.getFirstName());
+        }
+        if (patch.getLastName() != null) {
+            patched.setLastName(patch.getLastName());
+        }
+        if (patch.getAddress() != null) {
+            patched.setAddress(patch.getAddress());
+        }
+        if (patch.getCity() != null) {
+            patched.setCity(patch.getCity());
+        }
+        if (patch.getTelephone() != null) {
+            patched.setTelephone(patch.getTelephone());
+        }
+        patched.setVersion(newVersion);
+        return patched;
+    }
+
+    private static OwnerDTO copy(OwnerDTO owner) {
+        return new OwnerDTO(owner.getId(), owner.getFirstName(), owner.getLastName(), owner.getAddress(),
+                owner.getCity(), owner.getTelephone(), owner.getVersion());
+    }
+}
@@ -1,9 +1,15 @@
 package com.tecsup.petclinic.services;
 
+import com.tecsup.petclinic.dtos.OwnerDTO;
+import com.tecsup.petclinic.dtos.OwnerPatchDTO;
+import com.tecsup.petclinic.dtos.PageDTO;
 import com.tecsup.petclinic.entities.Owner;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
 import com.tecsup.petclinic.exceptions.OwnerNotFoundException;
+import com.tecsup.petclinic.exceptions.VersionConflictException;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service for Owner entity
@@ -14,15 +20,37 @@ public interface OwnerService {
 
     Owner update(Owner owner);
 
+    /**
+     * Write only the non null fields of the patch, if the owner is still at the given version
+     *
+     * @return new version
+     */
+    int patch(Long id, int version, OwnerPatchDTO patch) throws OwnerNotFoundException, VersionConflictException;
+
     void delete(Long id) throws OwnerNotFoundException;
 
     Owner findById(Long id) throws OwnerNotFoundException;
 
+    /**
+     * @return version of the owner, without loading the row; empty if it does not exist
+     */
+    Optional<Integer> findVersion(Long id);
+
     List<Owner> findByFirstName(String firstName);
 
     List<Owner> findByLastName(String lastName);
 
     List<Owner> findByCity(String city);
 
+    /**
+     * Typeahead search from the in-memory index, no query to the database
+     *
+     * @param query Start of a first or last name, full name, city or telephone
+     * @return At most limit owners, exact matches first
+     */
+    List<OwnerDTO> search(String query, int limit);
+
     List<Owner> findAll();
+
+    PageDTO<OwnerDTO> findPage(String cursor, Integer size) throws InvalidCursorException;
 }
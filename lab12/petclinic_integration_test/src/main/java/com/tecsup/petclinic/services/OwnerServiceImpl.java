@@ -1,9 +1,20 @@
 package com.tecsup.petclinic.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.tecsup.petclinic.dtos.OwnerDTO;
+import com.tecsup.petclinic.dtos.OwnerPatchDTO;
+import com.tecsup.petclinic.dtos.PageDTO;
+import com.tecsup.petclinic.dtos.PetDTO;
 import com.tecsup.petclinic.entities.Owner;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
 import com.tecsup.petclinic.exceptions.OwnerNotFoundException;
+import com.tecsup.petclinic.exceptions.VersionConflictException;
+import com.tecsup.petclinic.instrumentation.MetricsConfig;
 import com.tecsup.petclinic.repositories.OwnerRepository;
+import com.tecsup.petclinic.util.CursorCodec;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,29 +24,66 @@ import java.util.Optional;
  * Service implementation for Owner entity
  */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Slf4j
 public class OwnerServiceImpl implements OwnerService {
 
+    private static final String CURSOR_RESOURCE = "owners";
+
     private final OwnerRepository ownerRepository;
 
-    public OwnerServiceImpl(OwnerRepository ownerRepository) {
+    private final Cache<Integer, PetDTO> petCache;
+
+    private final OwnerSearchIndex searchIndex;
+
+    public OwnerServiceImpl(OwnerRepository ownerRepository, Cache<Integer, PetDTO> petCache,
+                            OwnerSearchIndex searchIndex) {
         this.ownerRepository = ownerRepository;
+        this.petCache = petCache;
+        this.searchIndex = searchIndex;
     }
 
     @Override
     public Owner create(Owner owner) {
-        return ownerRepository.save(owner);
+        Owner saved = ownerRepository.save(owner);
+        searchIndex.put(saved);
+        return saved;
     }
 
     @Override
     public Owner update(Owner owner) {
-        return ownerRepository.save(owner);
+        Owner saved = ownerRepository.save(owner);
+        searchIndex.put(saved);
+        return saved;
     }
 
+    @Override
+    public int patch(Long id, int version, OwnerPatchDTO patch) throws OwnerNotFoundException, VersionConflictException {
+        int updated = ownerRepository.patch(id, version, patch.getFirstName(), patch.getLastName(),
+                patch.getAddress(), patch.getCity(), patch.getTelephone());
+        if (updated == 0) {
+            Optional<Integer> current = ownerRepository.findVersionById(id);
+            if (current.isEmpty()) {
+                throw new OwnerNotFoundException("Owner not found with id: " + id);
+            }
+            throw new VersionConflictException("Owner " + id + " is at version " + current.get(), current.get());
+        }
+        searchIndex.patch(id, version + 1, patch);
+        return version + 1;
+    }
+
+    /**
+     * One DELETE, no read first. The owner's pets are deleted by the database
+     * (ON DELETE CASCADE), so the pet cache is cleared as well.
+     */
     @Override
     public void delete(Long id) throws OwnerNotFoundException {
-        Owner owner = findById(id);
-        ownerRepository.delete(owner);
+        int deleted = ownerRepository.deleteRowById(id);
+        if (deleted == 0) {
+            throw new OwnerNotFoundException("Owner not found with id: " + id);
+        }
+        searchIndex.remove(id);
+        petCache.invalidateAll();
     }
 
     @Override
@@ -47,6 +95,11 @@ public class OwnerServiceImpl implements OwnerService {
         return owner.get();
     }
 
+    @Override
+    public Optional<Integer> findVersion(Long id) {
+        return ownerRepository.findVersionById(id);
+    }
+
     @Override
     public List<Owner> findByFirstName(String firstName) {
         return ownerRepository.findByFirstName(firstName);
@@ -62,8 +115,21 @@ public class OwnerServiceImpl implements OwnerService {
         return ownerRepository.findByCity(city);
     }
 
+    @Override
+    public List<OwnerDTO> search(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+
     @Override
     public List<Owner> findAll() {
         return ownerRepository.findAll();
     }
+
+    @Override
+    public PageDTO<OwnerDTO> findPage(String cursor, Integer size) throws InvalidCursorException {
+        int pageSize = CursorCodec.pageSize(size);
+        long afterId = cursor == null ? 0L : CursorCodec.decodeLong(CURSOR_RESOURCE, cursor);
+        List<OwnerDTO> owners = ownerRepository.findDtoPageAfter(afterId, Limit.of(pageSize + 1));
+        return CursorCodec.toPage(owners, pageSize, owner -> CursorCodec.encode(CURSOR_RESOURCE, owner.getId()));
+    }
 }
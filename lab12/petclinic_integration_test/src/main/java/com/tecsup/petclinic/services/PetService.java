@@ -1,10 +1,15 @@
 package com.tecsup.petclinic.services;
 
+import com.tecsup.petclinic.dtos.PageDTO;
 import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.dtos.PetPatchDTO;
 import com.tecsup.petclinic.entities.Pet;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
 import com.tecsup.petclinic.exceptions.PetNotFoundException;
+import com.tecsup.petclinic.exceptions.VersionConflictException;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  *
@@ -20,6 +25,14 @@ public interface PetService {
      */
     public PetDTO create(PetDTO petDTO);
 
+    /**
+     * Insert many pets in JDBC batches
+     *
+     * @param petDTOs
+     * @return created pets, in the same order
+     */
+    List<PetDTO> createAll(List<PetDTO> petDTOs);
+
     /**
      *
      * @param pet
@@ -27,6 +40,18 @@ public interface PetService {
      */
     PetDTO update(PetDTO pet);
 
+    /**
+     * Write only the non null fields of the patch, if the pet is still at the given version
+     *
+     * @param id
+     * @param version version the client read (If-Match)
+     * @param patch
+     * @return new version
+     * @throws PetNotFoundException
+     * @throws VersionConflictException the pet has another version
+     */
+    int patch(Integer id, int version, PetPatchDTO patch) throws PetNotFoundException, VersionConflictException;
+
     /**
      *
      * @param id
@@ -41,6 +66,13 @@ public interface PetService {
      */
     PetDTO findById(Integer id) throws PetNotFoundException;
 
+    /**
+     *
+     * @param id
+     * @return version of the pet, without loading the row; empty if it does not exist
+     */
+    Optional<Integer> findVersion(Integer id);
+
     /**
      *
      * @param name
@@ -53,20 +85,29 @@ public interface PetService {
      * @param typeId
      * @return
      */
-    List<Pet> findByTypeId(int typeId);
+    List<PetDTO> findByTypeId(int typeId);
 
     /**
      *
      * @param ownerId
      * @return
      */
-    List<Pet> findByOwnerId(int ownerId);
+    List<PetDTO> findByOwnerId(int ownerId);
+
+    /**
+     *
+     * @return
+     */
+    List<PetDTO> findAll();
 
     /**
      *
+     * @param cursor cursor returned by the previous page, null for the first page
+     * @param size
      * @return
+     * @throws InvalidCursorException
      */
-    List<Pet> findAll();
+    PageDTO<PetDTO> findPage(String cursor, Integer size) throws InvalidCursorException;
 
     /**
      *
@@ -1,15 +1,32 @@
 package com.tecsup.petclinic.services;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.tecsup.petclinic.dtos.PageDTO;
 import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.dtos.PetPatchDTO;
 import com.tecsup.petclinic.entities.Pet;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
 import com.tecsup.petclinic.exceptions.PetNotFoundException;
+import com.tecsup.petclinic.exceptions.VersionConflictException;
+import com.tecsup.petclinic.instrumentation.MetricsConfig;
+import com.tecsup.petclinic.instrumentation.RequestLog;
 import com.tecsup.petclinic.mapper.PetMapper;
 import com.tecsup.petclinic.repositories.PetRepository;
+import com.tecsup.petclinic.util.CursorCodec;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -18,15 +35,42 @@ import java.util.stream.Collectors;
  *
  */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Slf4j
 public class PetServiceImpl implements PetService {
 
+    private static final String CURSOR_RESOURCE = "pets";
+
     PetRepository petRepository;
     PetMapper petMapper;
+    EntityManager entityManager;
+
+    /**
+     * PetDTOs by id, filled by findById and invalidated by every write of this
+     * service. Callers always get a copy, never the cached instance.
+     */
+    Cache<Integer, PetDTO> petCache;
+
+    /**
+     * Same cache, as the futures findById completes itself
+     */
+    AsyncCache<Integer, PetDTO> petAsyncCache;
 
-    public PetServiceImpl (PetRepository petRepository, PetMapper petMapper) {
+    /**
+     * Rows persisted between two flush/clear of the persistence context,
+     * aligned with the JDBC batch size
+     */
+    int batchSize;
+
+    public PetServiceImpl (PetRepository petRepository, PetMapper petMapper, EntityManager entityManager,
+                           Cache<Integer, PetDTO> petCache, AsyncCache<Integer, PetDTO> petAsyncCache,
+                           @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
         this.petRepository = petRepository;
         this.petMapper = petMapper;
+        this.entityManager = entityManager;
+        this.petCache = petCache;
+        this.petAsyncCache = petAsyncCache;
+        this.batchSize = batchSize;
     }
 
 
@@ -39,10 +83,40 @@ public class PetServiceImpl implements PetService {
     public PetDTO create(PetDTO petDTO) {
 
         Pet newPet = petRepository.save(petMapper.mapToEntity(petDTO));
+        petCache.invalidate(newPet.getId());
 
         return petMapper.mapToDto(newPet);
     }
 
+    /**
+     * Ids come from the pooled pets_seq generator, so Hibernate can group the
+     * INSERTs in JDBC batches. The persistence context is flushed and cleared
+     * every batchSize rows to keep it small.
+     *
+     * @param petDTOs
+     * @return
+     */
+    @Override
+    @Transactional
+    public List<PetDTO> createAll(List<PetDTO> petDTOs) {
+
+        List<PetDTO> created = new ArrayList<>(petDTOs.size());
+
+        for (int i = 0; i < petDTOs.size(); i++) {
+            Pet pet = petMapper.mapToEntity(petDTOs.get(i));
+            pet.setId(null);
+            entityManager.persist(pet);
+            created.add(petMapper.mapToDto(pet));
+            petCache.invalidate(pet.getId());
+
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return created;
+    }
+
     /**
      *
      * @param petDTO
@@ -52,6 +126,7 @@ public class PetServiceImpl implements PetService {
     public PetDTO update(PetDTO petDTO) {
 
         Pet newPet = petRepository.save(petMapper.mapToEntity(petDTO));
+        petCache.invalidate(newPet.getId());
 
         return petMapper.mapToDto(newPet);
 
@@ -59,6 +134,36 @@ public class PetServiceImpl implements PetService {
 
 
     /**
+     * One UPDATE of the given fields guarded by the version: no read before the
+     * write, and a concurrent change is reported instead of overwritten. Not
+     * transactional on purpose, the cache is invalidated after the commit.
+     *
+     * @param id
+     * @param version
+     * @param patch
+     * @return
+     * @throws PetNotFoundException
+     * @throws VersionConflictException
+     */
+    @Override
+    public int patch(Integer id, int version, PetPatchDTO patch) throws PetNotFoundException, VersionConflictException {
+
+        int updated = petRepository.patch(id, version, patch.getName(), patch.getTypeId(), patch.getOwnerId(),
+                petMapper.stringToDate(patch.getBirthDate()));
+        petCache.invalidate(id);
+
+        if (updated == 0) {
+            Optional<Integer> current = petRepository.findVersionById(id);
+            if (current.isEmpty())
+                throw new PetNotFoundException("Record not found...!");
+            throw new VersionConflictException("Pet " + id + " is at version " + current.get(), current.get());
+        }
+        return version + 1;
+    }
+
+    /**
+     * One DELETE, no read first: the row count tells whether the pet existed.
+     * Its visits go with it (ON DELETE CASCADE).
      *
      * @param id
      * @throws PetNotFoundException
@@ -66,13 +171,20 @@ public class PetServiceImpl implements PetService {
     @Override
     public void delete(Integer id) throws PetNotFoundException{
 
-        PetDTO pet = findById(id);
+        int deleted = petRepository.deleteRowById(id);
+        petCache.invalidate(id);
 
-        petRepository.delete(this.petMapper.mapToEntity(pet));
+        if (deleted == 0)
+            throw new PetNotFoundException("Record not found...!");
 
     }
 
     /**
+     * Served from the pet cache; on a miss the pet is loaded and mapped once,
+     * concurrent callers wait for the same load. The load runs after the
+     * cache has registered its future, outside the cache's internal compute
+     * (a synchronized block), so a virtual thread waiting on the query does
+     * not pin its carrier. Missing pets are not cached.
      *
      * @param id
      * @return
@@ -80,12 +192,48 @@ public class PetServiceImpl implements PetService {
     @Override
     public PetDTO findById(Integer id) throws PetNotFoundException {
 
-        Optional<Pet> pet = petRepository.findById(id);
-
-        if ( !pet.isPresent())
+        CompletableFuture<PetDTO> load = new CompletableFuture<>();
+        CompletableFuture<PetDTO> cached = petAsyncCache.get(id, (key, executor) -> load);
+
+        if (cached == load) {
+            try {
+                load.complete(petRepository.findById(id)
+                        .map(this.petMapper::mapToDto)
+                        .orElse(null));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        PetDTO pet;
+        try {
+            pet = cached.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        if (pet == null)
             throw new PetNotFoundException("Record not found...!");
 
-        return this.petMapper.mapToDto(pet.get());
+        return pet.toBuilder().build();
+    }
+
+    /**
+     * Answered by the pet cache when the pet is there, by a version-only query otherwise
+     *
+     * @param id
+     * @return
+     */
+    @Override
+    public Optional<Integer> findVersion(Integer id) {
+
+        PetDTO cached = petCache.getIfPresent(id);
+
+        if (cached != null)
+            return Optional.of(cached.getVersion());
+
+        return petRepository.findVersionById(id);
     }
 
     /**
@@ -98,7 +246,7 @@ public class PetServiceImpl implements PetService {
 
         List<Pet> pets = petRepository.findByName(name);
 
-        pets.forEach(pet -> log.info("" + pet));
+        RequestLog.result("pets.byName", pets);
 
         return pets
                 .stream()
@@ -112,11 +260,11 @@ public class PetServiceImpl implements PetService {
      * @return
      */
     @Override
-    public List<Pet> findByTypeId(int typeId) {
+    public List<PetDTO> findByTypeId(int typeId) {
 
-        List<Pet> pets = petRepository.findByTypeId(typeId);
+        List<PetDTO> pets = petRepository.findDtoByTypeId(typeId);
 
-        pets.forEach(pet -> log.info("" + pet));
+        RequestLog.result("pets.byType", pets, "typeId", typeId);
 
         return pets;
     }
@@ -127,11 +275,11 @@ public class PetServiceImpl implements PetService {
      * @return
      */
     @Override
-    public List<Pet> findByOwnerId(int ownerId) {
+    public List<PetDTO> findByOwnerId(int ownerId) {
 
-        List<Pet> pets = petRepository.findByOwnerId(ownerId);
+        List<PetDTO> pets = petRepository.findDtoByOwnerId(ownerId);
 
-        pets.forEach(pet -> log.info("" + pet));
+        RequestLog.result("pets.byOwner", pets, "ownerId", ownerId);
 
         return pets;
     }
@@ -141,10 +289,27 @@ public class PetServiceImpl implements PetService {
      * @return
      */
     @Override
-    public List<Pet> findAll() {
+    public List<PetDTO> findAll() {
         //
-        return petRepository.findAll();
+        return petRepository.findAllDto();
+
+    }
+
+    /**
+     *
+     * @param cursor
+     * @param size
+     * @return
+     */
+    @Override
+    public PageDTO<PetDTO> findPage(String cursor, Integer size) throws InvalidCursorException {
 
+        int pageSize = CursorCodec.pageSize(size);
+        int afterId = cursor == null ? 0 : CursorCodec.decodeInt(CURSOR_RESOURCE, cursor);
+
+        List<PetDTO> pets = petRepository.findDtoPageAfter(afterId, Limit.of(pageSize + 1));
+
+        return CursorCodec.toPage(pets, pageSize, pet -> CursorCodec.encode(CURSOR_RESOURCE, pet.getId()));
     }
 
     /**
@@ -154,11 +319,7 @@ public class PetServiceImpl implements PetService {
      */
     @Override
     public Pet findPetById(Integer id) throws PetNotFoundException {
-        Optional<Pet> pet = petRepository.findById(id);
-
-        if (!pet.isPresent())
-            throw new PetNotFoundException("Pet not found...!");
 
-        return pet.get();
+        return this.petMapper.mapToEntity(findById(id));
     }
 }
\ No newline at end of file
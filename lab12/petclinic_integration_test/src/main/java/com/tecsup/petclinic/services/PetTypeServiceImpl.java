@@ -2,7 +2,9 @@ package com.tecsup.petclinic.services;
 
 import com.tecsup.petclinic.entities.PetType;
 import com.tecsup.petclinic.exceptions.PetTypeNotFoundException;
+import com.tecsup.petclinic.instrumentation.MetricsConfig;
 import com.tecsup.petclinic.repositories.PetTypeRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +15,7 @@ import java.util.Optional;
  * Service implementation for PetType entity
  */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Slf4j
 public class PetTypeServiceImpl implements PetTypeService {
 
@@ -34,8 +37,9 @@ public class PetTypeServiceImpl implements PetTypeService {
 
     @Override
     public void delete(Integer id) throws PetTypeNotFoundException {
-        PetType petType = findById(id);
-        petTypeRepository.delete(petType);
+        if (petTypeRepository.deleteRowById(id) == 0) {
+            throw new PetTypeNotFoundException("PetType not found with id: " + id);
+        }
     }
 
     @Override
@@ -1,9 +1,14 @@
 package com.tecsup.petclinic.services;
 
 import com.tecsup.petclinic.entities.Specialty;
+import com.tecsup.petclinic.entities.Vet;
 import com.tecsup.petclinic.exceptions.SpecialtyNotFoundException;
+import com.tecsup.petclinic.instrumentation.MetricsConfig;
 import com.tecsup.petclinic.repositories.SpecialtyRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -13,13 +18,17 @@ import java.util.Optional;
  * Service implementation for Specialty entity
  */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Slf4j
 public class SpecialtyServiceImpl implements SpecialtyService {
 
     private final SpecialtyRepository specialtyRepository;
 
-    public SpecialtyServiceImpl(SpecialtyRepository specialtyRepository) {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SpecialtyServiceImpl(SpecialtyRepository specialtyRepository, EntityManagerFactory entityManagerFactory) {
         this.specialtyRepository = specialtyRepository;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     @Override
@@ -32,10 +41,16 @@ public class SpecialtyServiceImpl implements SpecialtyService {
         return specialtyRepository.save(specialty);
     }
 
+    /**
+     * One DELETE, no read first. The database drops the vet_specialties rows,
+     * so the cached Vet.specialties collections may name it and are evicted.
+     */
     @Override
     public void delete(Integer id) throws SpecialtyNotFoundException {
-        Specialty specialty = findById(id);
-        specialtyRepository.delete(specialty);
+        if (specialtyRepository.deleteRowById(id) == 0) {
+            throw new SpecialtyNotFoundException("Specialty not found with id: " + id);
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictCollectionData(Vet.SPECIALTIES_ROLE);
     }
 
     @Override
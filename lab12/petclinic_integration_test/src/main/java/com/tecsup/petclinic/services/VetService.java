@@ -1,9 +1,14 @@
 package com.tecsup.petclinic.services;
 
+import com.tecsup.petclinic.dtos.PageDTO;
+import com.tecsup.petclinic.dtos.VetPatchDTO;
 import com.tecsup.petclinic.entities.Vet;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
+import com.tecsup.petclinic.exceptions.VersionConflictException;
 import com.tecsup.petclinic.exceptions.VetNotFoundException;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service for Vet entity
@@ -14,13 +19,27 @@ public interface VetService {
 
     Vet update(Vet vet);
 
+    /**
+     * Write only the non null fields of the patch, if the vet is still at the given version
+     *
+     * @return new version
+     */
+    int patch(Integer id, int version, VetPatchDTO patch) throws VetNotFoundException, VersionConflictException;
+
     void delete(Integer id) throws VetNotFoundException;
 
     Vet findById(Integer id) throws VetNotFoundException;
 
+    /**
+     * @return version of the vet, without loading the row; empty if it does not exist
+     */
+    Optional<Integer> findVersion(Integer id);
+
     List<Vet> findByFirstName(String firstName);
 
     List<Vet> findByLastName(String lastName);
 
     List<Vet> findAll();
+
+    PageDTO<Vet> findPage(String cursor, Integer size) throws InvalidCursorException;
 }
@@ -1,10 +1,22 @@
 package com.tecsup.petclinic.services;
 
+import com.tecsup.petclinic.dtos.PageDTO;
+import com.tecsup.petclinic.dtos.VetPatchDTO;
 import com.tecsup.petclinic.entities.Vet;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
+import com.tecsup.petclinic.exceptions.VersionConflictException;
 import com.tecsup.petclinic.exceptions.VetNotFoundException;
+import com.tecsup.petclinic.instrumentation.MetricsConfig;
 import com.tecsup.petclinic.repositories.VetRepository;
+import com.tecsup.petclinic.util.CursorCodec;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,13 +25,19 @@ import java.util.Optional;
  * Service implementation for Vet entity
  */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Slf4j
 public class VetServiceImpl implements VetService {
 
+    private static final String CURSOR_RESOURCE = "vets";
+
     private final VetRepository vetRepository;
 
-    public VetServiceImpl(VetRepository vetRepository) {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public VetServiceImpl(VetRepository vetRepository, EntityManagerFactory entityManagerFactory) {
         this.vetRepository = vetRepository;
+        this.entityManagerFactory = entityManagerFactory;
     }
 
     @Override
@@ -32,10 +50,29 @@ public class VetServiceImpl implements VetService {
         return vetRepository.save(vet);
     }
 
+    @Override
+    public int patch(Integer id, int version, VetPatchDTO patch) throws VetNotFoundException, VersionConflictException {
+        int updated = vetRepository.patch(id, version, patch.getFirstName(), patch.getLastName());
+        if (updated == 0) {
+            Optional<Integer> current = vetRepository.findVersionById(id);
+            if (current.isEmpty()) {
+                throw new VetNotFoundException("Vet not found with id: " + id);
+            }
+            throw new VersionConflictException("Vet " + id + " is at version " + current.get(), current.get());
+        }
+        return version + 1;
+    }
+
+    /**
+     * One DELETE, no read first; the vet_specialties rows go with the vet
+     */
     @Override
     public void delete(Integer id) throws VetNotFoundException {
-        Vet vet = findById(id);
-        vetRepository.delete(vet);
+        int deleted = vetRepository.deleteRowById(id);
+        if (deleted == 0) {
+            throw new VetNotFoundException("Vet not found with id: " + id);
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictCollectionData(Vet.SPECIALTIES_ROLE, id);
     }
 
     @Override
@@ -47,6 +84,11 @@ public class VetServiceImpl implements VetService {
         return vet.get();
     }
 
+    @Override
+    public Optional<Integer> findVersion(Integer id) {
+        return vetRepository.findVersionById(id);
+    }
+
     @Override
     public List<Vet> findByFirstName(String firstName) {
         return vetRepository.findByFirstName(firstName);
@@ -61,4 +103,19 @@ public class VetServiceImpl implements VetService {
     public List<Vet> findAll() {
         return vetRepository.findAll();
     }
+
+    /**
+     * Specialties are initialized here, while the session is open. Vet.specialties
+     * is batch fetched, so the whole page costs one query for the vets plus one
+     * for their specialties, whatever the number of vets.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PageDTO<Vet> findPage(String cursor, Integer size) throws InvalidCursorException {
+        int pageSize = CursorCodec.pageSize(size);
+        int afterId = cursor == null ? 0 : CursorCodec.decodeInt(CURSOR_RESOURCE, cursor);
+        List<Vet> vets = vetRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        vets.forEach(vet -> Hibernate.initialize(vet.getSpecialties()));
+        return CursorCodec.toPage(vets, pageSize, vet -> CursorCodec.encode(CURSOR_RESOURCE, vet.getId()));
+    }
 }
@@ -1,10 +1,15 @@
 package com.tecsup.petclinic.services;
 
+import com.tecsup.petclinic.dtos.PageDTO;
+import com.tecsup.petclinic.dtos.VisitBatchResultDTO;
+import com.tecsup.petclinic.dtos.VisitDTO;
 import com.tecsup.petclinic.entities.Visit;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
 import com.tecsup.petclinic.exceptions.VisitNotFoundException;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service for Visit entity
@@ -22,4 +27,23 @@ public interface VisitService {
     List<Visit> findByVisitDate(LocalDate visitDate);
 
     List<Visit> findAll();
+
+    PageDTO<VisitDTO> findPage(String cursor, Integer size) throws InvalidCursorException;
+
+    /**
+     * Walk every visit through a forward-only cursor. Each visit is detached once
+     * the action returns, so memory does not grow with the table size.
+     *
+     * @param action Action applied to each visit
+     */
+    void forEachVisit(Consumer<Visit> action);
+
+    /**
+     * Insert a batch of visits. Invalid rows are reported and skipped, the
+     * valid ones are still inserted.
+     *
+     * @param visitDTOs Visits to insert
+     * @return Number of inserted rows and the rejected ones
+     */
+    VisitBatchResultDTO ingest(List<VisitDTO> visitDTOs);
 }
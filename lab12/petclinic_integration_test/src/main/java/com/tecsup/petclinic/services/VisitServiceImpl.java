@@ -1,26 +1,64 @@
 package com.tecsup.petclinic.services;
 
+import com.tecsup.petclinic.dtos.PageDTO;
+import com.tecsup.petclinic.dtos.VisitBatchResultDTO;
+import com.tecsup.petclinic.dtos.VisitDTO;
+import com.tecsup.petclinic.dtos.VisitRowErrorDTO;
+import com.tecsup.petclinic.entities.Pet;
 import com.tecsup.petclinic.entities.Visit;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
 import com.tecsup.petclinic.exceptions.VisitNotFoundException;
+import com.tecsup.petclinic.instrumentation.MetricsConfig;
+import com.tecsup.petclinic.repositories.PetRepository;
 import com.tecsup.petclinic.repositories.VisitRepository;
+import com.tecsup.petclinic.util.CursorCodec;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for Visit entity
  */
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Slf4j
 public class VisitServiceImpl implements VisitService {
 
+    private static final String CURSOR_RESOURCE = "visits";
+
+    /**
+     * Max ids bound in one IN (...) list when validating pet ids
+     */
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private static final int DESCRIPTION_LENGTH = 255;
+
     private final VisitRepository visitRepository;
+    private final PetRepository petRepository;
+    private final EntityManager entityManager;
+    private final int batchSize;
 
-    public VisitServiceImpl(VisitRepository visitRepository) {
+    public VisitServiceImpl(VisitRepository visitRepository, PetRepository petRepository, EntityManager entityManager,
+                            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
         this.visitRepository = visitRepository;
+        this.petRepository = petRepository;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
     }
 
     @Override
@@ -35,8 +73,9 @@ public class VisitServiceImpl implements VisitService {
 
     @Override
     public void delete(Long id) throws VisitNotFoundException {
-        Visit visit = findById(id);
-        visitRepository.delete(visit);
+        if (visitRepository.deleteRowById(id) == 0) {
+            throw new VisitNotFoundException("Visit not found with id: " + id);
+        }
     }
 
     @Override
@@ -57,4 +96,101 @@ public class VisitServiceImpl implements VisitService {
     public List<Visit> findAll() {
         return visitRepository.findAll();
     }
+
+    @Override
+    public PageDTO<VisitDTO> findPage(String cursor, Integer size) throws InvalidCursorException {
+        int pageSize = CursorCodec.pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<VisitDTO> visits;
+        if (cursor == null) {
+            visits = visitRepository.findDtoFirstPage(limit);
+        } else {
+            String[] keys = CursorCodec.decode(CURSOR_RESOURCE, cursor, 2);
+            visits = visitRepository.findDtoPageAfter(
+                    CursorCodec.parseDate(keys[0], cursor), CursorCodec.parseLong(keys[1], cursor), limit);
+        }
+        return CursorCodec.toPage(visits, pageSize,
+                visit -> CursorCodec.encode(CURSOR_RESOURCE, visit.getVisitDate(), visit.getId()));
+    }
+
+    /**
+     * Pet ids are validated up front with set-based queries and visits point to
+     * their pet through a lazy reference, so no pet row is read. Ids come from
+     * the pooled visits_seq generator, which lets Hibernate batch the INSERTs.
+     */
+    @Override
+    @Transactional
+    public VisitBatchResultDTO ingest(List<VisitDTO> visitDTOs) {
+        Set<Integer> existingPetIds = findExistingPetIds(visitDTOs);
+        List<VisitRowErrorDTO> errors = new ArrayList<>();
+        int accepted = 0;
+
+        for (int i = 0; i < visitDTOs.size(); i++) {
+            VisitDTO visitDTO = visitDTOs.get(i);
+
+            String error = validate(visitDTO, existingPetIds);
+            if (error != null) {
+                errors.add(new VisitRowErrorDTO(i, error));
+                continue;
+            }
+
+            Visit visit = new Visit();
+            visit.setVisitDate(LocalDate.parse(visitDTO.getVisitDate()));
+            visit.setDescription(visitDTO.getDescription());
+            visit.setPet(entityManager.getReference(Pet.class, visitDTO.getPetId()));
+            entityManager.persist(visit);
+
+            if (++accepted % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return new VisitBatchResultDTO(accepted, errors);
+    }
+
+    private Set<Integer> findExistingPetIds(List<VisitDTO> visitDTOs) {
+        List<Integer> petIds = visitDTOs.stream()
+                .map(VisitDTO::getPetId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Set<Integer> existing = new HashSet<>();
+        for (int from = 0; from < petIds.size(); from += ID_CHUNK_SIZE) {
+            List<Integer> chunk = petIds.subList(from, Math.min(from + ID_CHUNK_SIZE, petIds.size()));
+            existing.addAll(petRepository.findExistingIds(chunk));
+        }
+        return existing;
+    }
+
+    private String validate(VisitDTO visitDTO, Set<Integer> existingPetIds) {
+        if (visitDTO.getPetId() == null) {
+            return "petId is required";
+        }
+        if (!existingPetIds.contains(visitDTO.getPetId())) {
+            return "Pet not found with id: " + visitDTO.getPetId();
+        }
+        if (visitDTO.getVisitDate() == null) {
+            return "visitDate is required";
+        }
+        try {
+            LocalDate.parse(visitDTO.getVisitDate());
+        } catch (DateTimeParseException e) {
+            return "Invalid visitDate: " + visitDTO.getVisitDate();
+        }
+        if (visitDTO.getDescription() != null && visitDTO.getDescription().length() > DESCRIPTION_LENGTH) {
+            return "description longer than " + DESCRIPTION_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachVisit(Consumer<Visit> action) {
+        try (Stream<Visit> visits = visitRepository.streamAll()) {
+            visits.forEach(visit -> {
+                action.accept(visit);
+                entityManager.detach(visit);
+            });
+        }
+    }
 }
@@ -0,0 +1,116 @@
+package com.tecsup.petclinic.util;
+
+import com.tecsup.petclinic.dtos.PageDTO;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Encodes and decodes the opaque cursor tokens used by keyset pagination.
+ *
+ * A token is the url-safe base64 of "resource|key1|key2...", so a cursor issued
+ * for one listing cannot be replayed against another one.
+ */
+public final class CursorCodec {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Clamp the requested page size to [1, MAX_PAGE_SIZE]
+     *
+     * @param requested size requested by the client, may be null
+     * @return page size to use
+     */
+    public static int pageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    public static String encode(String resource, Object... keys) {
+        StringBuilder raw = new StringBuilder(resource);
+        for (Object key : keys) {
+            raw.append(SEPARATOR).append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String resource, String cursor, int keys) throws InvalidCursorException {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        String[] parts = raw.split("\\" + SEPARATOR, -1);
+        if (parts.length != keys + 1 || !parts[0].equals(resource)) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+        String[] values = new String[keys];
+        System.arraycopy(parts, 1, values, 0, keys);
+        return values;
+    }
+
+    public static int decodeInt(String resource, String cursor) throws InvalidCursorException {
+        try {
+            return Integer.parseInt(decode(resource, cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static long decodeLong(String resource, String cursor) throws InvalidCursorException {
+        try {
+            return Long.parseLong(decode(resource, cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static LocalDate parseDate(String value, String cursor) throws InvalidCursorException {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static long parseLong(String value, String cursor) throws InvalidCursorException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Build a page from rows fetched with a limit of size + 1: the extra row only
+     * tells us whether a next page exists and is never returned.
+     *
+     * @param rows     rows fetched from the repository
+     * @param size     page size
+     * @param cursorOf builds the cursor pointing after a given row
+     * @return the page
+     */
+    public static <T> PageDTO<T> toPage(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new PageDTO<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new PageDTO<>(items, cursorOf.apply(items.get(size - 1)));
+    }
+}
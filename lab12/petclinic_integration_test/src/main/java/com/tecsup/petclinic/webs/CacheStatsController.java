@@ -0,0 +1,32 @@
+package com.tecsup.petclinic.webs;
+
+import com.tecsup.petclinic.dtos.CacheStatsDTO;
+import com.tecsup.petclinic.services.CacheStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for cache statistics
+ */
+@RestController
+public class CacheStatsController {
+
+    private final CacheStatsService cacheStatsService;
+
+    public CacheStatsController(CacheStatsService cacheStatsService) {
+        this.cacheStatsService = cacheStatsService;
+    }
+
+    /**
+     * Get the hit/miss counters of every cache
+     *
+     * @return List of cache statistics
+     */
+    @GetMapping(value = "/cache/stats")
+    public ResponseEntity<List<CacheStatsDTO>> findAllCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.findAll());
+    }
+}
@@ -0,0 +1,45 @@
+package com.tecsup.petclinic.webs;
+
+/**
+ * Strong ETags built from the entity version column
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(int version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Version named by an If-Match header holding a single strong ETag
+     *
+     * @return the version, null if the header is not a single ETag of ours
+     */
+    static Integer parse(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return Integer.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Strong comparison of an If-Match header ("*" or a list of ETags) with a version
+     */
+    static boolean matches(String ifMatch, int version) {
+        String etag = of(version);
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
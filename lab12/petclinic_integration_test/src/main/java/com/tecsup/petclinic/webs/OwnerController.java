@@ -1,14 +1,25 @@
 package com.tecsup.petclinic.webs;
 
+import com.tecsup.petclinic.dtos.OwnerDTO;
+import com.tecsup.petclinic.dtos.OwnerPatchDTO;
+import com.tecsup.petclinic.dtos.PageDTO;
 import com.tecsup.petclinic.entities.Owner;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
 import com.tecsup.petclinic.exceptions.OwnerNotFoundException;
+import com.tecsup.petclinic.exceptions.VersionConflictException;
+import com.tecsup.petclinic.instrumentation.RequestLog;
+import com.tecsup.petclinic.mapper.OwnerMapper;
 import com.tecsup.petclinic.services.OwnerService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Controller for Owner entity
@@ -17,48 +28,87 @@ import java.util.List;
 @Slf4j
 public class OwnerController {
 
+    static final int MAX_SEARCH_LIMIT = 50;
+
     private final OwnerService ownerService;
+    private final OwnerMapper ownerMapper;
 
-    public OwnerController(OwnerService ownerService) {
+    public OwnerController(OwnerService ownerService, OwnerMapper ownerMapper) {
         this.ownerService = ownerService;
+        this.ownerMapper = ownerMapper;
     }
 
     /**
-     * Get all owners
+     * Get one page of owners, ordered by id
      *
+     * @param cursor Value of the X-Next-Cursor header of the previous page
+     * @param size   Page size
      * @return List of owners
      */
     @GetMapping(value = "/owners")
-    public ResponseEntity<List<Owner>> findAllOwners() {
-        List<Owner> owners = ownerService.findAll();
-        log.info("owners: " + owners);
+    public ResponseEntity<List<OwnerDTO>> findAllOwners(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
+        try {
+            PageDTO<OwnerDTO> page = ownerService.findPage(cursor, size);
+            RequestLog.result("owners.page", page.getItems(), "size", size);
+            return Pages.ok(page);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Typeahead search on names, city and telephone
+     *
+     * @param q     Start of the text typed, case and accents ignored
+     * @param limit Maximum number of owners, up to 50
+     * @return Matching owners, exact matches first
+     */
+    @GetMapping(value = "/owners/search")
+    public ResponseEntity<List<OwnerDTO>> search(@RequestParam String q,
+                                                 @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<OwnerDTO> owners = ownerService.search(q, limit);
+        RequestLog.result("owners.search", owners, "limit", limit);
         return ResponseEntity.ok(owners);
     }
 
     /**
      * Create owner
      *
-     * @param owner Owner to create
+     * @param ownerDTO Owner to create
      * @return Created owner
      */
     @PostMapping(value = "/owners")
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Owner> create(@RequestBody Owner owner) {
-        Owner newOwner = ownerService.create(owner);
-        return ResponseEntity.status(HttpStatus.CREATED).body(newOwner);
+    public ResponseEntity<OwnerDTO> create(@RequestBody OwnerDTO ownerDTO) {
+        Owner newOwner = ownerService.create(ownerMapper.mapToEntity(ownerDTO));
+        return ResponseEntity.status(HttpStatus.CREATED).body(ownerMapper.mapToDto(newOwner));
     }
 
     /**
-     * Find owner by id
+     * Find owner by id, 304 from a version-only query when If-None-Match still matches
      *
-     * @param id Owner id
+     * @param id      Owner id
+     * @param request Request, for If-None-Match
      * @return Owner found
      */
     @GetMapping(value = "/owners/{id}")
-    public ResponseEntity<Owner> findById(@PathVariable Long id) {
+    public ResponseEntity<OwnerDTO> findById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Integer> version = ownerService.findVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(ETags.of(version.get()))) {
+                return null;
+            }
+        }
         try {
             Owner owner = ownerService.findById(id);
-            return ResponseEntity.ok(owner);
+            return ResponseEntity.ok().eTag(ETags.of(owner.getVersion())).body(ownerMapper.mapToDto(owner));
         } catch (OwnerNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -67,23 +117,59 @@ public class OwnerController {
     /**
      * Update owner
      *
-     * @param owner Owner to update
-     * @param id    Owner id
+     * @param ownerDTO Owner to update
+     * @param id       Owner id
+     * @param ifMatch  Optional ETag the owner must still have
      * @return Updated owner
      */
     @PutMapping(value = "/owners/{id}")
-    public ResponseEntity<Owner> update(@RequestBody Owner owner, @PathVariable Long id) {
+    public ResponseEntity<OwnerDTO> update(@RequestBody OwnerDTO ownerDTO, @PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             Owner updateOwner = ownerService.findById(id);
-            updateOwner.setFirstName(owner.getFirstName());
-            updateOwner.setLastName(owner.getLastName());
-            updateOwner.setAddress(owner.getAddress());
-            updateOwner.setCity(owner.getCity());
-            updateOwner.setTelephone(owner.getTelephone());
-            ownerService.update(updateOwner);
-            return ResponseEntity.ok(updateOwner);
+            if (ifMatch != null && !ETags.matches(ifMatch, updateOwner.getVersion())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            updateOwner.setFirstName(ownerDTO.getFirstName());
+            updateOwner.setLastName(ownerDTO.getLastName());
+            updateOwner.setAddress(ownerDTO.getAddress());
+            updateOwner.setCity(ownerDTO.getCity());
+            updateOwner.setTelephone(ownerDTO.getTelephone());
+            Owner updated = ownerService.update(updateOwner);
+            return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(ownerMapper.mapToDto(updated));
+        } catch (OwnerNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+    }
+
+    /**
+     * Partial update: only the fields present in the body are written, and only
+     * if the owner still has the version given in If-Match
+     *
+     * @param patch   Fields to change
+     * @param id      Owner id
+     * @param ifMatch ETag of the version the client read, required
+     * @return 204 with the new ETag, 409 if the owner was changed meanwhile
+     */
+    @PatchMapping(value = "/owners/{id}")
+    public ResponseEntity<Void> patch(@RequestBody OwnerPatchDTO patch, @PathVariable Long id,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        Integer version = ETags.parse(ifMatch);
+        if (version == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            int newVersion = ownerService.patch(id, version, patch);
+            return ResponseEntity.noContent().eTag(ETags.of(newVersion)).build();
         } catch (OwnerNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).eTag(ETags.of(e.getCurrentVersion())).build();
         }
     }
 
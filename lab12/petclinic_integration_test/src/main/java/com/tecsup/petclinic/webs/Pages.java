@@ -0,0 +1,24 @@
+package com.tecsup.petclinic.webs;
+
+import com.tecsup.petclinic.dtos.PageDTO;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Builds list responses for keyset paginated endpoints: the body stays a plain
+ * JSON array and the cursor of the next page travels in a response header.
+ */
+final class Pages {
+
+    private Pages() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(PageDTO<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(PageDTO.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
@@ -1,24 +1,35 @@
 package com.tecsup.petclinic.webs;
 
+import com.tecsup.petclinic.dtos.PageDTO;
 import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.dtos.PetPatchDTO;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
+import com.tecsup.petclinic.instrumentation.RequestLog;
 import com.tecsup.petclinic.mapper.PetMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import com.tecsup.petclinic.entities.Pet;
 import com.tecsup.petclinic.exceptions.PetNotFoundException;
+import com.tecsup.petclinic.exceptions.VersionConflictException;
 import com.tecsup.petclinic.services.PetService;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 
@@ -29,6 +40,8 @@ import java.util.List;
 @Slf4j
 public class PetController {
 
+	static final int MAX_BATCH_SIZE = 10_000;
+
 	String name = null;
 
 	//@Autowired
@@ -48,22 +61,26 @@ public class PetController {
 	}
 
 	/**
-	 * Get all pets
+	 * Get one page of pets, ordered by id
 	 *
+	 * @param cursor value of the X-Next-Cursor header of the previous page
+	 * @param size
 	 * @return
 	 */
 	@GetMapping(value = "/pets")
-	public ResponseEntity<List<PetDTO>> findAllPets() {
+	public ResponseEntity<List<PetDTO>> findAllPets(@RequestParam(required = false) String cursor,
+													@RequestParam(required = false) Integer size) {
 
-		List<Pet> pets = petService.findAll();
-		log.info("pets: " + pets);
-		pets.forEach(item -> log.info("Pet >>  {} ", item));
+		PageDTO<PetDTO> page;
 
-		List<PetDTO> petsTO = this.mapper.mapToDtoList(pets);
-		log.info("petsTO: " + petsTO);
-		petsTO.forEach(item -> log.info("PetTO >>  {} ", item));
+		try {
+			page = petService.findPage(cursor, size);
+		} catch (InvalidCursorException e) {
+			return ResponseEntity.badRequest().build();
+		}
+		RequestLog.result("pets.page", page.getItems(), "size", size);
 
-		return ResponseEntity.ok(petsTO);
+		return Pages.ok(page);
 
 	}
 
@@ -87,14 +104,44 @@ public class PetController {
 
 
 	/**
-	 * Find pet by id
+	 * Create many pets in one request, inserted with JDBC batching
+	 *
+	 * @param petTOs
+	 * @return
+	 */
+	@PostMapping(value = "/pets/batch")
+	@ResponseStatus(HttpStatus.CREATED)
+	ResponseEntity<List<PetDTO>> createAll(@RequestBody List<PetDTO> petTOs) {
+
+		if (petTOs.size() > MAX_BATCH_SIZE) {
+			return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+		}
+
+		List<PetDTO> newPetTOs = petService.createAll(petTOs);
+
+		return ResponseEntity.status(HttpStatus.CREATED).body(newPetTOs);
+
+	}
+
+	/**
+	 * Find pet by id. With If-None-Match only the version is read, an
+	 * unchanged pet is answered 304 without loading or mapping it.
 	 *
 	 * @param id
+	 * @param request
 	 * @return
 	 * @throws PetNotFoundException
 	 */
 	@GetMapping(value = "/pets/{id}")
-	ResponseEntity<PetDTO> findById(@PathVariable Integer id) {
+	ResponseEntity<PetDTO> findById(@PathVariable Integer id, WebRequest request) {
+
+		if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+			Optional<Integer> version = petService.findVersion(id);
+			if (version.isEmpty())
+				return ResponseEntity.notFound().build();
+			if (request.checkNotModified(ETags.of(version.get())))
+				return null;
+		}
 
 		PetDTO petDto = null;
 
@@ -104,7 +151,7 @@ public class PetController {
 		} catch (PetNotFoundException e) {
 			return ResponseEntity.notFound().build();
 		}
-		return ResponseEntity.ok(petDto);
+		return ResponseEntity.ok().eTag(ETags.of(petDto.getVersion())).body(petDto);
 	}
 
 	/**
@@ -115,7 +162,8 @@ public class PetController {
 	 * @return
 	 */
 	@PutMapping(value = "/pets/{id}")
-	ResponseEntity<PetDTO>  update(@RequestBody PetDTO petTO, @PathVariable Integer id) {
+	ResponseEntity<PetDTO>  update(@RequestBody PetDTO petTO, @PathVariable Integer id,
+								   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
 		PetDTO updatePetDto = null;
 
@@ -123,17 +171,53 @@ public class PetController {
 
             updatePetDto = petService.findById(id);
 
+			if (ifMatch != null && !ETags.matches(ifMatch, updatePetDto.getVersion()))
+				return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+
             updatePetDto.setName(petTO.getName());
             updatePetDto.setOwnerId(petTO.getOwnerId());
             updatePetDto.setTypeId(petTO.getTypeId());
 
-			petService.update(updatePetDto);
+			updatePetDto = petService.update(updatePetDto);
 
 		} catch (PetNotFoundException e) {
 			return ResponseEntity.notFound().build();
+		} catch (ObjectOptimisticLockingFailureException e) {
+			// Changed between the read and the write
+			return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
 		}
 
-		return ResponseEntity.ok(updatePetDto);
+		return ResponseEntity.ok().eTag(ETags.of(updatePetDto.getVersion())).body(updatePetDto);
+	}
+
+	/**
+	 * Partial update: only the fields present in the body are written, and only
+	 * if the pet still has the version given in If-Match
+	 *
+	 * @param patch
+	 * @param id
+	 * @param ifMatch ETag of the version the client read, required
+	 * @return 204 with the new ETag, 409 if the pet was changed meanwhile
+	 */
+	@PatchMapping(value = "/pets/{id}")
+	ResponseEntity<Void> patch(@RequestBody PetPatchDTO patch, @PathVariable Integer id,
+							   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+		if (ifMatch == null)
+			return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+
+		Integer version = ETags.parse(ifMatch);
+		if (version == null)
+			return ResponseEntity.badRequest().build();
+
+		try {
+			int newVersion = petService.patch(id, version, patch);
+			return ResponseEntity.noContent().eTag(ETags.of(newVersion)).build();
+		} catch (PetNotFoundException e) {
+			return ResponseEntity.notFound().build();
+		} catch (VersionConflictException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).eTag(ETags.of(e.getCurrentVersion())).build();
+		}
 	}
 
 	/**
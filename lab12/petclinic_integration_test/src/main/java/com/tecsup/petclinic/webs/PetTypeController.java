@@ -1,7 +1,10 @@
 package com.tecsup.petclinic.webs;
 
+import com.tecsup.petclinic.dtos.PetTypeDTO;
 import com.tecsup.petclinic.entities.PetType;
 import com.tecsup.petclinic.exceptions.PetTypeNotFoundException;
+import com.tecsup.petclinic.instrumentation.RequestLog;
+import com.tecsup.petclinic.mapper.PetTypeMapper;
 import com.tecsup.petclinic.services.PetTypeService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -18,9 +21,11 @@ import java.util.List;
 public class PetTypeController {
 
     private final PetTypeService petTypeService;
+    private final PetTypeMapper petTypeMapper;
 
-    public PetTypeController(PetTypeService petTypeService) {
+    public PetTypeController(PetTypeService petTypeService, PetTypeMapper petTypeMapper) {
         this.petTypeService = petTypeService;
+        this.petTypeMapper = petTypeMapper;
     }
 
     /**
@@ -29,23 +34,23 @@ public class PetTypeController {
      * @return List of pet types
      */
     @GetMapping(value = "/types")
-    public ResponseEntity<List<PetType>> findAllPetTypes() {
+    public ResponseEntity<List<PetTypeDTO>> findAllPetTypes() {
         List<PetType> petTypes = petTypeService.findAll();
-        log.info("petTypes: " + petTypes);
-        return ResponseEntity.ok(petTypes);
+        RequestLog.result("petTypes.list", petTypes);
+        return ResponseEntity.ok(petTypeMapper.mapToDtoList(petTypes));
     }
 
     /**
      * Create pet type
      *
-     * @param petType PetType to create
+     * @param petTypeDTO PetType to create
      * @return Created pet type
      */
     @PostMapping(value = "/types")
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<PetType> create(@RequestBody PetType petType) {
-        PetType newPetType = petTypeService.create(petType);
-        return ResponseEntity.status(HttpStatus.CREATED).body(newPetType);
+    public ResponseEntity<PetTypeDTO> create(@RequestBody PetTypeDTO petTypeDTO) {
+        PetType newPetType = petTypeService.create(petTypeMapper.mapToEntity(petTypeDTO));
+        return ResponseEntity.status(HttpStatus.CREATED).body(petTypeMapper.mapToDto(newPetType));
     }
 
     /**
@@ -55,10 +60,10 @@ public class PetTypeController {
      * @return PetType found
      */
     @GetMapping(value = "/types/{id}")
-    public ResponseEntity<PetType> findById(@PathVariable Integer id) {
+    public ResponseEntity<PetTypeDTO> findById(@PathVariable Integer id) {
         try {
             PetType petType = petTypeService.findById(id);
-            return ResponseEntity.ok(petType);
+            return ResponseEntity.ok(petTypeMapper.mapToDto(petType));
         } catch (PetTypeNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -67,17 +72,17 @@ public class PetTypeController {
     /**
      * Update pet type
      *
-     * @param petType PetType to update
-     * @param id      PetType id
+     * @param petTypeDTO PetType to update
+     * @param id         PetType id
      * @return Updated pet type
      */
     @PutMapping(value = "/types/{id}")
-    public ResponseEntity<PetType> update(@RequestBody PetType petType, @PathVariable Integer id) {
+    public ResponseEntity<PetTypeDTO> update(@RequestBody PetTypeDTO petTypeDTO, @PathVariable Integer id) {
         try {
             PetType updatePetType = petTypeService.findById(id);
-            updatePetType.setName(petType.getName());
+            updatePetType.setName(petTypeDTO.getName());
             petTypeService.update(updatePetType);
-            return ResponseEntity.ok(updatePetType);
+            return ResponseEntity.ok(petTypeMapper.mapToDto(updatePetType));
         } catch (PetTypeNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -0,0 +1,60 @@
+package com.tecsup.petclinic.webs;
+
+import com.tecsup.petclinic.dtos.VisitDTO;
+import com.tecsup.petclinic.mapper.VisitMapper;
+import com.tecsup.petclinic.repositories.ReactiveVisitRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Visit listings streamed from R2DBC as newline-delimited JSON (reactive profile).
+ *
+ * Spring MVC writes a Flux one element at a time and requests the next one once
+ * it has been written, so a slow client slows down the fetch instead of buffering
+ * rows, and the request thread is released while waiting.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/reactive")
+public class ReactiveVisitController {
+
+    private final ReactiveVisitRepository visitRepository;
+    private final VisitMapper visitMapper;
+
+    public ReactiveVisitController(ReactiveVisitRepository visitRepository, VisitMapper visitMapper) {
+        this.visitRepository = visitRepository;
+        this.visitMapper = visitMapper;
+    }
+
+    /**
+     * Stream the visits ordered by id
+     *
+     * @param after Last id already read, to resume a stream
+     * @param limit Maximum number of visits, all when absent
+     * @return Visits, one JSON document per line
+     */
+    @GetMapping(value = "/visits", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<VisitDTO> streamVisits(@RequestParam(defaultValue = "0") long after,
+                                       @RequestParam(required = false) Integer limit) {
+        Flux<VisitDTO> visits = visitRepository.findByIdGreaterThanOrderById(after).map(visitMapper::rowToDto);
+        // take with limitRequest: never asks the database for more than limit rows
+        return limit == null ? visits : visits.take(Math.max(limit, 0), true);
+    }
+
+    /**
+     * Stream the visit history of a pet, oldest first
+     *
+     * @param petId Pet id
+     * @return Visits, one JSON document per line, none for an unknown pet
+     */
+    @GetMapping(value = "/pets/{petId}/visits", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<VisitDTO> streamPetVisits(@PathVariable Integer petId) {
+        return visitRepository.findByPetIdOrderByVisitDateAscIdAsc(petId).map(visitMapper::rowToDto);
+    }
+}
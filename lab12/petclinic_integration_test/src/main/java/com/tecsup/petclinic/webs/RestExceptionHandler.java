@@ -0,0 +1,36 @@
+package com.tecsup.petclinic.webs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.format.DateTimeParseException;
+
+/**
+ * Client errors only detected while mapping or writing, answered as 4xx instead of 500
+ */
+@RestControllerAdvice
+@Slf4j
+public class RestExceptionHandler {
+
+    /**
+     * A write rejected by a constraint, e.g. a PATCH with an ownerId or typeId that does not exist
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Void> integrityViolation(DataIntegrityViolationException e) {
+        log.debug("Rejected write: {}", e.getMostSpecificCause().getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+    }
+
+    /**
+     * A date of the request body that is not yyyy-MM-dd
+     */
+    @ExceptionHandler(DateTimeParseException.class)
+    public ResponseEntity<Void> invalidDate(DateTimeParseException e) {
+        log.debug("Invalid date: {}", e.getParsedString());
+        return ResponseEntity.badRequest().build();
+    }
+}
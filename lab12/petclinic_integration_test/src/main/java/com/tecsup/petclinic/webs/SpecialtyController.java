@@ -1,7 +1,10 @@
 package com.tecsup.petclinic.webs;
 
+import com.tecsup.petclinic.dtos.SpecialtyDTO;
 import com.tecsup.petclinic.entities.Specialty;
 import com.tecsup.petclinic.exceptions.SpecialtyNotFoundException;
+import com.tecsup.petclinic.instrumentation.RequestLog;
+import com.tecsup.petclinic.mapper.SpecialtyMapper;
 import com.tecsup.petclinic.services.SpecialtyService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -18,9 +21,11 @@ import java.util.List;
 public class SpecialtyController {
 
     private final SpecialtyService specialtyService;
+    private final SpecialtyMapper specialtyMapper;
 
-    public SpecialtyController(SpecialtyService specialtyService) {
+    public SpecialtyController(SpecialtyService specialtyService, SpecialtyMapper specialtyMapper) {
         this.specialtyService = specialtyService;
+        this.specialtyMapper = specialtyMapper;
     }
 
     /**
@@ -29,23 +34,23 @@ public class SpecialtyController {
      * @return List of specialties
      */
     @GetMapping(value = "/specialties")
-    public ResponseEntity<List<Specialty>> findAllSpecialties() {
+    public ResponseEntity<List<SpecialtyDTO>> findAllSpecialties() {
         List<Specialty> specialties = specialtyService.findAll();
-        log.info("specialties: " + specialties);
-        return ResponseEntity.ok(specialties);
+        RequestLog.result("specialties.list", specialties);
+        return ResponseEntity.ok(specialtyMapper.mapToDtoList(specialties));
     }
 
     /**
      * Create specialty
      *
-     * @param specialty Specialty to create
+     * @param specialtyDTO Specialty to create
      * @return Created specialty
      */
     @PostMapping(value = "/specialties")
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Specialty> create(@RequestBody Specialty specialty) {
-        Specialty newSpecialty = specialtyService.create(specialty);
-        return ResponseEntity.status(HttpStatus.CREATED).body(newSpecialty);
+    public ResponseEntity<SpecialtyDTO> create(@RequestBody SpecialtyDTO specialtyDTO) {
+        Specialty newSpecialty = specialtyService.create(specialtyMapper.mapToEntity(specialtyDTO));
+        return ResponseEntity.status(HttpStatus.CREATED).body(specialtyMapper.mapToDto(newSpecialty));
     }
 
     /**
@@ -55,10 +60,10 @@ public class SpecialtyController {
      * @return Specialty found
      */
     @GetMapping(value = "/specialties/{id}")
-    public ResponseEntity<Specialty> findById(@PathVariable Integer id) {
+    public ResponseEntity<SpecialtyDTO> findById(@PathVariable Integer id) {
         try {
             Specialty specialty = specialtyService.findById(id);
-            return ResponseEntity.ok(specialty);
+            return ResponseEntity.ok(specialtyMapper.mapToDto(specialty));
         } catch (SpecialtyNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -67,17 +72,17 @@ public class SpecialtyController {
     /**
      * Update specialty
      *
-     * @param specialty Specialty to update
-     * @param id        Specialty id
+     * @param specialtyDTO Specialty to update
+     * @param id           Specialty id
      * @return Updated specialty
      */
     @PutMapping(value = "/specialties/{id}")
-    public ResponseEntity<Specialty> update(@RequestBody Specialty specialty, @PathVariable Integer id) {
+    public ResponseEntity<SpecialtyDTO> update(@RequestBody SpecialtyDTO specialtyDTO, @PathVariable Integer id) {
         try {
             Specialty updateSpecialty = specialtyService.findById(id);
-            updateSpecialty.setName(specialty.getName());
+            updateSpecialty.setName(specialtyDTO.getName());
             specialtyService.update(updateSpecialty);
-            return ResponseEntity.ok(updateSpecialty);
+            return ResponseEntity.ok(specialtyMapper.mapToDto(updateSpecialty));
         } catch (SpecialtyNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
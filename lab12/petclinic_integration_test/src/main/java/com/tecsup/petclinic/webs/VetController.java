@@ -1,68 +1,121 @@
 package com.tecsup.petclinic.webs;
 
+import com.tecsup.petclinic.dtos.PageDTO;
+import com.tecsup.petclinic.dtos.VetDTO;
+import com.tecsup.petclinic.dtos.VetPatchDTO;
 import com.tecsup.petclinic.entities.Vet;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
+import com.tecsup.petclinic.exceptions.VersionConflictException;
 import com.tecsup.petclinic.exceptions.VetNotFoundException;
+import com.tecsup.petclinic.instrumentation.RequestLog;
+import com.tecsup.petclinic.mapper.SpecialtyMapper;
+import com.tecsup.petclinic.mapper.VetMapper;
 import com.tecsup.petclinic.services.VetService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @Slf4j
 public class VetController {
 
     private final VetService vetService;
+    private final VetMapper vetMapper;
+    private final SpecialtyMapper specialtyMapper;
 
-    public VetController(VetService vetService) {
+    public VetController(VetService vetService, VetMapper vetMapper, SpecialtyMapper specialtyMapper) {
         this.vetService = vetService;
+        this.vetMapper = vetMapper;
+        this.specialtyMapper = specialtyMapper;
     }
 
     @GetMapping(value = "/vets")
-    @Transactional(readOnly = true)
-    public ResponseEntity<List<Vet>> findAllVets() {
-        List<Vet> vets = vetService.findAll();
-        // Initialize lazy-loaded specialties
-        vets.forEach(vet -> {
-            if (vet.getSpecialties() != null) {
-                vet.getSpecialties().size();
-            }
-        });
-        log.info("vets: " + vets);
-        return ResponseEntity.ok(vets);
+    public ResponseEntity<List<VetDTO>> findAllVets(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size) {
+        PageDTO<Vet> page;
+        try {
+            page = vetService.findPage(cursor, size);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        RequestLog.result("vets.page", page.getItems(), "size", size);
+        return Pages.ok(new PageDTO<>(vetMapper.mapToDtoList(page.getItems()), page.getNextCursor()));
     }
 
     @PostMapping(value = "/vets")
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Vet> create(@RequestBody Vet vet) {
-        Vet newVet = vetService.create(vet);
-        return ResponseEntity.status(HttpStatus.CREATED).body(newVet);
+    public ResponseEntity<VetDTO> create(@RequestBody VetDTO vetDTO) {
+        Vet newVet = vetService.create(vetMapper.mapToEntity(vetDTO));
+        return ResponseEntity.status(HttpStatus.CREATED).body(vetMapper.mapToDto(newVet));
     }
 
     @GetMapping(value = "/vets/{id}")
-    public ResponseEntity<Vet> findById(@PathVariable Integer id) {
+    public ResponseEntity<VetDTO> findById(@PathVariable Integer id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Integer> version = vetService.findVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(ETags.of(version.get()))) {
+                return null;
+            }
+        }
         try {
             Vet vet = vetService.findById(id);
-            return ResponseEntity.ok(vet);
+            return ResponseEntity.ok().eTag(ETags.of(vet.getVersion())).body(vetMapper.mapToDto(vet));
         } catch (VetNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PutMapping(value = "/vets/{id}")
-    public ResponseEntity<Vet> update(@RequestBody Vet vet, @PathVariable Integer id) {
+    public ResponseEntity<VetDTO> update(@RequestBody VetDTO vetDTO, @PathVariable Integer id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             Vet updateVet = vetService.findById(id);
-            updateVet.setFirstName(vet.getFirstName());
-            updateVet.setLastName(vet.getLastName());
-            updateVet.setSpecialties(vet.getSpecialties());
-            vetService.update(updateVet);
-            return ResponseEntity.ok(updateVet);
+            if (ifMatch != null && !ETags.matches(ifMatch, updateVet.getVersion())) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            updateVet.setFirstName(vetDTO.getFirstName());
+            updateVet.setLastName(vetDTO.getLastName());
+            updateVet.setSpecialties(specialtyMapper.mapToEntitySet(vetDTO.getSpecialties()));
+            Vet updated = vetService.update(updateVet);
+            return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(vetMapper.mapToDto(updated));
+        } catch (VetNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+    }
+
+    /**
+     * Partial update of the vet's own columns (not its specialties), guarded
+     * by the version given in If-Match
+     */
+    @PatchMapping(value = "/vets/{id}")
+    public ResponseEntity<Void> patch(@RequestBody VetPatchDTO patch, @PathVariable Integer id,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+        }
+        Integer version = ETags.parse(ifMatch);
+        if (version == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            int newVersion = vetService.patch(id, version, patch);
+            return ResponseEntity.noContent().eTag(ETags.of(newVersion)).build();
         } catch (VetNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).eTag(ETags.of(e.getCurrentVersion())).build();
         }
     }
 
@@ -1,20 +1,28 @@
 package com.tecsup.petclinic.webs;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecsup.petclinic.dtos.PageDTO;
+import com.tecsup.petclinic.dtos.VisitBatchResultDTO;
 import com.tecsup.petclinic.dtos.VisitDTO;
 import com.tecsup.petclinic.entities.Pet;
 import com.tecsup.petclinic.entities.Visit;
+import com.tecsup.petclinic.exceptions.InvalidCursorException;
 import com.tecsup.petclinic.exceptions.PetNotFoundException;
 import com.tecsup.petclinic.exceptions.VisitNotFoundException;
+import com.tecsup.petclinic.instrumentation.RequestLog;
+import com.tecsup.petclinic.mapper.VisitMapper;
 import com.tecsup.petclinic.services.PetService;
 import com.tecsup.petclinic.services.VisitService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * REST Controller for Visit entity
@@ -23,27 +31,63 @@ import java.util.stream.Collectors;
 @Slf4j
 public class VisitController {
 
+    static final int MAX_BATCH_SIZE = 10_000;
+
     private final VisitService visitService;
     private final PetService petService;
+    private final VisitMapper visitMapper;
+    private final ObjectMapper objectMapper;
 
-    public VisitController(VisitService visitService, PetService petService) {
+    public VisitController(VisitService visitService, PetService petService, VisitMapper visitMapper,
+                           ObjectMapper objectMapper) {
         this.visitService = visitService;
         this.petService = petService;
+        this.visitMapper = visitMapper;
+        this.objectMapper = objectMapper;
     }
 
     /**
-     * Get all visits
+     * Get one page of visits, ordered by visit date and id
      *
+     * @param cursor Value of the X-Next-Cursor header of the previous page
+     * @param size   Page size
      * @return List of visits
      */
     @GetMapping(value = "/visits")
-    public ResponseEntity<List<VisitDTO>> findAllVisits() {
-        List<Visit> visits = visitService.findAll();
-        List<VisitDTO> visitDTOs = visits.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-        log.info("visits: " + visits);
-        return ResponseEntity.ok(visitDTOs);
+    public ResponseEntity<List<VisitDTO>> findAllVisits(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
+        PageDTO<VisitDTO> page;
+        try {
+            page = visitService.findPage(cursor, size);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        RequestLog.result("visits.page", page.getItems(), "size", size);
+        return Pages.ok(page);
+    }
+
+    /**
+     * Export every visit as newline-delimited JSON, streamed straight from the
+     * database cursor instead of being buffered in memory
+     *
+     * @return Streaming body, one visit per line
+     */
+    @GetMapping(value = "/visits/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportVisits() {
+        StreamingResponseBody body = out -> {
+            visitService.forEachVisit(visit -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(visitMapper.mapToDto(visit)));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
@@ -58,12 +102,27 @@ public class VisitController {
         try {
             Visit visit = convertToEntity(visitDTO);
             Visit newVisit = visitService.create(visit);
-            return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(newVisit));
+            return ResponseEntity.status(HttpStatus.CREATED).body(visitMapper.mapToDto(newVisit));
         } catch (PetNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Ingest a batch of visits. Rows referencing unknown pets or carrying
+     * invalid data are reported back instead of failing the whole batch.
+     *
+     * @param visitDTOs Visits to insert
+     * @return Number of inserted visits and the rejected rows
+     */
+    @PostMapping(value = "/visits/batch")
+    public ResponseEntity<VisitBatchResultDTO> ingest(@RequestBody List<VisitDTO> visitDTOs) {
+        if (visitDTOs.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(visitService.ingest(visitDTOs));
+    }
+
     /**
      * Find visit by id
      *
@@ -74,7 +133,7 @@ public class VisitController {
     public ResponseEntity<VisitDTO> findById(@PathVariable Long id) {
         try {
             Visit visit = visitService.findById(id);
-            return ResponseEntity.ok(convertToDTO(visit));
+            return ResponseEntity.ok(visitMapper.mapToDto(visit));
         } catch (VisitNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -91,14 +150,14 @@ public class VisitController {
     public ResponseEntity<VisitDTO> update(@RequestBody VisitDTO visitDTO, @PathVariable Long id) {
         try {
             Visit updateVisit = visitService.findById(id);
-            updateVisit.setVisitDate(LocalDate.parse(visitDTO.getVisitDate()));
+            updateVisit.setVisitDate(visitMapper.stringToDate(visitDTO.getVisitDate()));
             updateVisit.setDescription(visitDTO.getDescription());
             if (visitDTO.getPetId() != null) {
                 Pet pet = petService.findPetById(visitDTO.getPetId());
                 updateVisit.setPet(pet);
             }
             visitService.update(updateVisit);
-            return ResponseEntity.ok(convertToDTO(updateVisit));
+            return ResponseEntity.ok(visitMapper.mapToDto(updateVisit));
         } catch (VisitNotFoundException | PetNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -120,20 +179,8 @@ public class VisitController {
         }
     }
 
-    private VisitDTO convertToDTO(Visit visit) {
-        return VisitDTO.builder()
-                .id(visit.getId())
-                .visitDate(visit.getVisitDate() != null ? visit.getVisitDate().toString() : null)
-                .description(visit.getDescription())
-                .petId(visit.getPet() != null ? visit.getPet().getId() : null)
-                .build();
-    }
-
     private Visit convertToEntity(VisitDTO visitDTO) throws PetNotFoundException {
-        Visit visit = new Visit();
-        visit.setId(visitDTO.getId());
-        visit.setVisitDate(LocalDate.parse(visitDTO.getVisitDate()));
-        visit.setDescription(visitDTO.getDescription());
+        Visit visit = visitMapper.mapToEntity(visitDTO);
         if (visitDTO.getPetId() != null) {
             Pet pet = petService.findPetById(visitDTO.getPetId());
             visit.setPet(pet);
@@ -16,6 +16,8 @@ DROP TABLE IF EXISTS owners;
 DROP TABLE IF EXISTS types;
 DROP TABLE IF EXISTS specialties;
 DROP TABLE IF EXISTS vets;
+DROP SEQUENCE IF EXISTS pets_seq;
+DROP SEQUENCE IF EXISTS visits_seq;
 
 -- ===============================================
 -- TABLE: vets (Veterinarios)
@@ -28,6 +30,7 @@ CREATE TABLE IF NOT EXISTS vets (
   email           VARCHAR(100),
   phone           VARCHAR(20),
   active          BOOLEAN DEFAULT TRUE,
+  version         INT NOT NULL DEFAULT 0,
   PRIMARY KEY (id)
 );
 
@@ -96,6 +99,7 @@ CREATE TABLE IF NOT EXISTS owners (
   address       VARCHAR(255),
   city          VARCHAR(80),
   telephone     VARCHAR(20),
+  version       INT NOT NULL DEFAULT 0,
   PRIMARY KEY (id)
 );
 
@@ -112,6 +116,7 @@ CREATE TABLE IF NOT EXISTS pets (
   type_id       INT NOT NULL,
   owner_id      INT NOT NULL,
   age           INT,
+  version       INT NOT NULL DEFAULT 0,
   PRIMARY KEY (id),
   FOREIGN KEY (owner_id) REFERENCES owners(id) 
     ON DELETE CASCADE 
@@ -123,6 +128,14 @@ CREATE TABLE IF NOT EXISTS pets (
 
 CREATE INDEX idx_pets_name ON pets(name);
 
+-- ===============================================
+-- SEQUENCE: pets_seq
+-- Description: Pooled id generator for pets (blocks of 50 ids
+-- per round-trip, so inserts can be JDBC batched).
+-- Starts above the ids seeded by data.sql
+-- ===============================================
+CREATE SEQUENCE IF NOT EXISTS pets_seq START WITH 100 INCREMENT BY 50;
+
 -- ===============================================
 -- TABLE: visits (Visitas Veterinarias)
 -- Description: Stores pet visit records
@@ -134,6 +147,7 @@ CREATE TABLE IF NOT EXISTS visits (
   visit_date      DATE NOT NULL,
   description     VARCHAR(255),
   cost            DECIMAL(10,2),
+  version         INT NOT NULL DEFAULT 0,
   PRIMARY KEY (id),
   FOREIGN KEY (pet_id) REFERENCES pets(id) 
     ON DELETE CASCADE 
@@ -145,7 +159,15 @@ CREATE TABLE IF NOT EXISTS visits (
 
 CREATE INDEX idx_visits_pet_id ON visits(pet_id);
 CREATE INDEX idx_visits_vet_id ON visits(vet_id);
-CREATE INDEX idx_visits_date ON visits(visit_date);
+CREATE INDEX idx_visits_date ON visits(visit_date, id);
+
+-- ===============================================
+-- SEQUENCE: visits_seq
+-- Description: Pooled id generator for visits (blocks of 50
+-- ids per round-trip, so inserts can be JDBC batched).
+-- Starts above the ids seeded by data.sql
+-- ===============================================
+CREATE SEQUENCE IF NOT EXISTS visits_seq START WITH 100 INCREMENT BY 50;
 
 -- ===============================================
 -- END OF SCHEMA CREATION
@@ -0,0 +1,81 @@
+package com.tecsup.petclinic.datagen;
+
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.services.PetService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against its own in-memory database, the rows it adds would change the
+ * results of the other tests
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:datagen;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false")
+@DirtiesContext
+public class DataGeneratorTest {
+
+    @Autowired
+    private DataGenerator dataGenerator;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testGeneratedRowsAreConsistentAndRepeatable() throws Exception {
+
+        DataGenProperties properties = new DataGenProperties();
+        properties.setOwners(40);
+        properties.setPets(100);
+        properties.setVisits(300);
+        properties.setVets(5);
+        properties.setTypes(2);
+        properties.setSpecialties(4);
+        properties.setSpecialtiesPerVet(2);
+        // Not a divisor of the row counts: full and partial statements
+        properties.setRowsPerStatement(7);
+
+        int petsBefore = count("pets");
+        DataGenResult first = dataGenerator.generate(properties);
+        DataGenResult.IdRange pets = first.get("pets");
+        DataGenResult.IdRange vets = first.get("vets");
+        DataGenResult.IdRange visits = first.get("visits");
+
+        assertEquals(petsBefore + 100, count("pets"));
+        assertEquals(10, (int) jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM vet_specialties WHERE vet_id BETWEEN ? AND ?", Integer.class,
+                vets.getFirst(), vets.last()));
+        // Every generated visit references a generated pet and vet
+        assertEquals(300, (int) jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM visits WHERE id BETWEEN ? AND ? AND pet_id BETWEEN ? AND ? AND vet_id BETWEEN ? AND ?",
+                Integer.class, visits.getFirst(), visits.last(), pets.getFirst(), pets.last(), vets.getFirst(), vets.last()));
+
+        // Hibernate's next pet id comes after the generated ones
+        PetDTO created = petService.create(PetDTO.builder()
+                .name("AfterDatagen").typeId(1).ownerId(1).birthDate("2020-01-01").build());
+        assertTrue(created.getId() > pets.last());
+        petService.delete(created.getId());
+
+        // Same seed, same values, only the ids move
+        DataGenResult second = dataGenerator.generate(properties);
+        assertEquals(petValues(pets), petValues(second.get("pets")));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private List<String> petValues(DataGenResult.IdRange range) {
+        return jdbcTemplate.queryForList("SELECT CONCAT(name, ' ', birth_date) FROM pets WHERE id BETWEEN ? AND ? ORDER BY id",
+                String.class, range.getFirst(), range.last());
+    }
+}
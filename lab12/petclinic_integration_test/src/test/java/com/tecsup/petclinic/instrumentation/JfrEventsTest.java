@@ -0,0 +1,91 @@
+package com.tecsup.petclinic.instrumentation;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Records two GET /pets/{id} with the jfr profile and reads the events back
+ * from the recording file. Own in-memory database, the context differs from
+ * the other tests.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:jfr;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false")
+@ActiveProfiles({"h2", "jfr"})
+@DirtiesContext
+public class JfrEventsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testRequestPathEventsAreRecorded() throws Exception {
+
+        Path file = Files.createTempFile("petclinic", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.tecsup.petclinic.HttpRequest");
+            recording.enable("com.tecsup.petclinic.RepositoryCall");
+            recording.enable("com.tecsup.petclinic.Mapping");
+            recording.enable("com.tecsup.petclinic.CacheLookup");
+            recording.start();
+
+            // Miss (repository, mapping), then hit
+            mockMvc.perform(get("/pets/1")).andExpect(status().isOk());
+            mockMvc.perform(get("/pets/1")).andExpect(status().isOk());
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events;
+        try {
+            events = RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        List<RecordedEvent> requests = named(events, "com.tecsup.petclinic.HttpRequest");
+        assertEquals(2, requests.size());
+        for (RecordedEvent request : requests) {
+            assertEquals("GET", request.getString("method"));
+            assertEquals("/pets/{id}", request.getString("pattern"));
+            assertEquals(200, request.getInt("status"));
+        }
+
+        assertTrue(named(events, "com.tecsup.petclinic.RepositoryCall").stream().anyMatch(event ->
+                "PetRepository".equals(event.getString("repository"))
+                        && "findById".equals(event.getString("query"))
+                        && event.getLong("rows") == 1));
+
+        assertTrue(named(events, "com.tecsup.petclinic.Mapping").stream().anyMatch(event ->
+                "PetMapper".equals(event.getString("mapper"))
+                        && "mapToDto".equals(event.getString("method"))
+                        && event.getLong("rows") == 1));
+
+        List<RecordedEvent> lookups = named(events, "com.tecsup.petclinic.CacheLookup").stream()
+                .filter(event -> "1".equals(event.getString("key")))
+                .toList();
+        assertTrue(lookups.stream().anyMatch(event -> !event.getBoolean("hit")));
+        assertTrue(lookups.stream().anyMatch(event -> event.getBoolean("hit")));
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+}
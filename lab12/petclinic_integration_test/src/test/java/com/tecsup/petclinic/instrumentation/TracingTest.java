@@ -0,0 +1,93 @@
+package com.tecsup.petclinic.instrumentation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecsup.petclinic.dtos.VisitDTO;
+import com.tecsup.petclinic.instrumentation.tracing.RecentSpansExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /visits as a trace: HTTP server span, controller, the two service calls
+ * and their SQL statements. Own in-memory database and span file.
+ */
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tracing;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false",
+        "management.tracing.sampling.probability=1.0",
+        "petclinic.tracing.file=target/tracing-test/spans.jsonl"})
+@DirtiesContext
+public class TracingTest {
+
+    private static final ObjectMapper om = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private RecentSpansExporter recentSpans;
+
+    @Test
+    public void testCreateVisitIsOneTrace() throws Exception {
+
+        Path file = Path.of("target", "tracing-test", "spans.jsonl");
+        Files.deleteIfExists(file);
+        recentSpans.clear();
+
+        VisitDTO visit = VisitDTO.builder().visitDate("2024-02-01").description("Traced").petId(1).build();
+        this.mockMvc.perform(post("/visits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(visit)))
+                .andExpect(status().isCreated());
+
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        SpanData controller = named(recentSpans.getSpans(), "VisitController.create").orElseThrow();
+        List<SpanData> trace = recentSpans.getTrace(controller.getTraceId());
+
+        SpanData server = trace.stream().filter(span -> span.getName().startsWith("http post")).findFirst().orElseThrow();
+        assertEquals(server.getSpanId(), controller.getParentSpanId());
+
+        SpanData findPet = named(trace, "PetServiceImpl.findPetById").orElseThrow();
+        SpanData create = named(trace, "VisitServiceImpl.create").orElseThrow();
+        assertEquals(controller.getSpanId(), findPet.getParentSpanId());
+        assertEquals(controller.getSpanId(), create.getParentSpanId());
+
+        // The INSERT of the visit, under the service call that ran it
+        SpanData insert = trace.stream().filter(span -> span.getAttributes().asMap().entrySet().stream()
+                .anyMatch(attribute -> attribute.getKey().getKey().startsWith("jdbc.query")
+                        && String.valueOf(attribute.getValue()).toLowerCase().startsWith("insert into visits")))
+                .findFirst().orElseThrow();
+        assertEquals(create.getSpanId(), insert.getParentSpanId());
+
+        List<String> lines = Files.readAllLines(file);
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"name\":\"VisitController.create\"")
+                && line.contains(controller.getTraceId())));
+    }
+
+    private static Optional<SpanData> named(List<SpanData> spans, String name) {
+        return spans.stream().filter(span -> span.getName().equals(name)).findFirst();
+    }
+}
@@ -0,0 +1,37 @@
+package com.tecsup.petclinic.mapper;
+
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.entities.Pet;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PetMapperTest {
+
+    private final PetMapper petMapper = PetMapper.INSTANCE;
+
+    @Test
+    public void testBirthDateRoundTrip() {
+
+        Pet pet = new Pet(1, "Leo", 1, 1, LocalDate.of(2000, 9, 7));
+
+        PetDTO petDTO = petMapper.mapToDto(pet);
+        assertEquals("2000-09-07", petDTO.getBirthDate());
+
+        Pet mapped = petMapper.mapToEntity(petDTO);
+        assertEquals(LocalDate.of(2000, 9, 7), mapped.getBirthDate());
+    }
+
+    @Test
+    public void testMissingOrInvalidBirthDate() {
+
+        assertEquals("", petMapper.dateToString(null));
+        assertNull(petMapper.stringToDate(""));
+        assertThrows(DateTimeParseException.class, () -> petMapper.stringToDate("07/09/2000"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.tecsup.petclinic.services;
+
+import com.tecsup.petclinic.dtos.OwnerDTO;
+import com.tecsup.petclinic.dtos.OwnerPatchDTO;
+import com.tecsup.petclinic.entities.Owner;
+import com.tecsup.petclinic.mapper.OwnerMapper;
+import com.tecsup.petclinic.repositories.OwnerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prefix matching and incremental maintenance of the owner search index,
+ * on a mocked repository
+ */
+public class OwnerSearchIndexTest {
+
+    private OwnerSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        OwnerRepository repository = Mockito.mock(OwnerRepository.class);
+        Mockito.when(repository.findDtoPageAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any()))
+                .thenReturn(List.of(
+                        new OwnerDTO(1L, "George", "Franklin", "110 W. Liberty St.", "Madison", "6085551023", 0),
+                        new OwnerDTO(2L, "Betty", "Davis", "638 Cardinal Ave.", "Sun Prairie", "6085551749", 0),
+                        new OwnerDTO(4L, "Harold", "Davis", "563 Friendly St.", "Windsor", "6085553198", 0),
+                        new OwnerDTO(11L, "José", "Dávila", "Av. Grau 12", "Lima", "(01) 555-1234", 0)));
+        index = new OwnerSearchIndex(repository, OwnerMapper.INSTANCE);
+        index.rebuild();
+    }
+
+    @Test
+    public void testPrefixOfNameCityAndTelephone() {
+
+        assertEquals(List.of(1L), ids(index.search("fran", 10)));
+        assertEquals(List.of(2L), ids(index.search("PRAI", 10)));
+        assertEquals(List.of(1L), ids(index.search("george f", 10)));
+        assertEquals(List.of(2L), ids(index.search("davis bet", 10)));
+        assertEquals(List.of(4L), ids(index.search("608-555-31", 10)));
+        assertEquals(List.of(), index.search("zz", 10));
+        assertEquals(List.of(), index.search("  ", 10));
+    }
+
+    @Test
+    public void testAccentsAndCaseIgnored() {
+
+        assertEquals(List.of(11L), ids(index.search("jose", 10)));
+        assertEquals(List.of(11L), ids(index.search("DÁVIL", 10)));
+        assertEquals(List.of(11L), ids(index.search("01 555", 10)));
+    }
+
+    @Test
+    public void testTermOrderAndLimit() {
+
+        // In term order: "davila" before "davis"
+        assertEquals(List.of(11L, 2L, 4L), ids(index.search("da", 10)));
+        assertEquals(List.of(11L, 2L), ids(index.search("da", 2)));
+        assertEquals(List.of(2L, 4L), ids(index.search("davis", 10)));
+    }
+
+    @Test
+    public void testPutPatchAndRemove() {
+
+        Owner owner = new Owner();
+        owner.setId(20L);
+        owner.setFirstName("Lucia");
+        owner.setLastName("Quispe");
+        owner.setCity("Cusco");
+        owner.setTelephone("987654321");
+        index.put(owner);
+        assertEquals(List.of(20L), ids(index.search("quis", 10)));
+
+        // Re-indexed: the old terms no longer match
+        owner.setLastName("Flores");
+        owner.setVersion(1);
+        index.put(owner);
+        assertTrue(index.search("quis", 10).isEmpty());
+        assertEquals(List.of(20L), ids(index.search("flor", 10)));
+
+        index.patch(20L, 3, OwnerPatchDTO.builder().city("Tacna").build());
+        assertTrue(index.search("cusco", 10).isEmpty());
+        OwnerDTO patched = index.search("tacna", 10).get(0);
+        assertEquals("Flores", patched.getLastName());
+        assertEquals(3, patched.getVersion());
+
+        index.remove(20L);
+        assertTrue(index.search("lucia", 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testStaleWritesIgnored() {
+
+        Owner owner = new Owner();
+        owner.setId(20L);
+        owner.setLastName("Quispe");
+        owner.setVersion(2);
+        index.put(owner);
+
+        // Saves that committed earlier but reach the index later
+        owner.setLastName("Flores");
+        owner.setVersion(1);
+        index.put(owner);
+        owner.setVersion(2);
+        index.put(owner);
+        index.patch(20L, 2, OwnerPatchDTO.builder().lastName("Mamani").build());
+
+        assertTrue(index.search("flor", 10).isEmpty());
+        assertTrue(index.search("mama", 10).isEmpty());
+        OwnerDTO indexed = index.search("quis", 10).get(0);
+        assertEquals(2, indexed.getVersion());
+    }
+
+    @Test
+    public void testRebuildSkipsOwnersRemovedMeanwhile() {
+
+        OwnerRepository repository = Mockito.mock(OwnerRepository.class);
+        OwnerSearchIndex rebuilt = new OwnerSearchIndex(repository, OwnerMapper.INSTANCE);
+        // Owner 2 is deleted after the page holding it was read
+        Mockito.when(repository.findDtoPageAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    rebuilt.remove(2L);
+                    return List.of(
+                            new OwnerDTO(1L, "George", "Franklin", "110 W. Liberty St.", "Madison", "6085551023", 0),
+                            new OwnerDTO(2L, "Betty", "Davis", "638 Cardinal Ave.", "Sun Prairie", "6085551749", 0));
+                });
+
+        rebuilt.rebuild();
+
+        assertEquals(1, rebuilt.size());
+        assertTrue(rebuilt.search("betty", 10).isEmpty());
+        assertEquals(List.of(1L), ids(rebuilt.search("george", 10)));
+    }
+
+    @Test
+    public void testRebuildKeepsNewerOwners() {
+
+        index.patch(1L, 5, OwnerPatchDTO.builder().city("Lima").build());
+
+        // The database page read before the patch committed
+        index.rebuild();
+
+        assertTrue(index.search("madison", 10).isEmpty());
+        assertEquals(5, index.search("george", 10).get(0).getVersion());
+    }
+
+    @Test
+    public void testResultsAreCopies() {
+
+        index.search("fran", 10).get(0).setLastName("Changed");
+
+        assertEquals("Franklin", index.search("fran", 10).get(0).getLastName());
+    }
+
+    private static List<Long> ids(List<OwnerDTO> owners) {
+        return owners.stream().map(OwnerDTO::getId).toList();
+    }
+}
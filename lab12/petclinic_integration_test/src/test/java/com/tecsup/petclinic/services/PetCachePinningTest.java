@@ -0,0 +1,98 @@
+package com.tecsup.petclinic.services;
+
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.entities.Pet;
+import com.tecsup.petclinic.repositories.PetRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A pet cache miss on a virtual thread must not pin its carrier while the pet
+ * is loaded. The repository sleeps to stand for a slow query: a virtual thread
+ * parking inside a synchronized block emits jdk.VirtualThreadPinned.
+ */
+@SpringBootTest
+@EnabledForJreRange(min = JRE.JAVA_21)
+public class PetCachePinningTest {
+
+    private static final int FIRST_PET_ID = 5000;
+    private static final int PETS = 8;
+
+    @Autowired
+    private PetService petService;
+
+    @MockitoBean
+    private PetRepository repository;
+
+    @Test
+    public void testCacheMissDoesNotPinVirtualThread() throws Exception {
+
+        // One more pet for the warm-up, ahead of the recorded ones
+        for (int id = FIRST_PET_ID - 1; id < FIRST_PET_ID + PETS; id++) {
+            Pet pet = new Pet(id, "Pinned" + id, 1, 1, null);
+            Mockito.when(repository.findById(id)).thenAnswer(invocation -> {
+                Thread.sleep(50);
+                return Optional.of(pet);
+            });
+        }
+
+        // Java 21 API, looked up so the tests still compile for Java 17
+        ExecutorService executor = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            // Classes of the lookup path loaded before recording
+            executor.submit(() -> petService.findById(FIRST_PET_ID - 1)).get();
+
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(10)).withStackTrace();
+            recording.start();
+
+            List<Future<PetDTO>> pets = new ArrayList<>();
+            for (int id = FIRST_PET_ID; id < FIRST_PET_ID + PETS; id++) {
+                int petId = id;
+                pets.add(executor.submit(() -> petService.findById(petId)));
+                // Same pet twice: the second caller waits on the first one's load
+                pets.add(executor.submit(() -> petService.findById(petId)));
+            }
+            for (int i = 0; i < pets.size(); i++) {
+                assertEquals("Pinned" + (FIRST_PET_ID + i / 2), pets.get(i).get().getName());
+            }
+
+            recording.stop();
+            recording.dump(file);
+        } finally {
+            executor.shutdown();
+        }
+
+        List<RecordedEvent> pinned;
+        try {
+            pinned = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                    .toList();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertEquals(List.of(), pinned.stream().map(RecordedEvent::toString).toList());
+        Mockito.verify(repository, Mockito.times(1)).findById(FIRST_PET_ID);
+    }
+}
@@ -0,0 +1,70 @@
+package com.tecsup.petclinic.services;
+
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.dtos.VisitBatchResultDTO;
+import com.tecsup.petclinic.dtos.VisitDTO;
+import com.tecsup.petclinic.exceptions.PetNotFoundException;
+import com.tecsup.petclinic.instrumentation.SqlStatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Deleting a pet with visits. The visits are removed by the database cascade,
+ * so the delete must stay one statement whatever the history of the pet. The
+ * latency against the number of visits is measured by PetDeleteBenchmark in
+ * the benchmarks module.
+ */
+@SpringBootTest
+public class PetDeleteCascadeTest {
+
+    private static final int[] VISIT_COUNTS = {0, 10, 100, 1_000, 5_000};
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private VisitService visitService;
+
+    @Test
+    public void testDeleteIsOneStatementWhateverTheVisits() throws Exception {
+
+        for (int visits : VISIT_COUNTS) {
+
+            PetDTO pet = petService.create(PetDTO.builder()
+                    .name("Visited" + visits)
+                    .typeId(1)
+                    .ownerId(1)
+                    .birthDate("2015-01-01")
+                    .build());
+
+            VisitBatchResultDTO result = visitService.ingest(newVisits(pet.getId(), visits));
+            assertEquals(visits, result.getAccepted());
+
+            int statements;
+            try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+                petService.delete(pet.getId());
+                statements = scope.getCount();
+            }
+
+            assertEquals(1, statements, "statements to delete a pet with " + visits + " visits");
+            assertThrows(PetNotFoundException.class, () -> petService.findById(pet.getId()));
+        }
+    }
+
+    private static List<VisitDTO> newVisits(Integer petId, int count) {
+        List<VisitDTO> visits = new ArrayList<>(count);
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < count; i++) {
+            visits.add(new VisitDTO(null, date.plusDays(i % 365).toString(), "checkup " + i, petId));
+        }
+        return visits;
+    }
+}
@@ -0,0 +1,101 @@
+package com.tecsup.petclinic.services;
+
+import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.dtos.PetPatchDTO;
+import com.tecsup.petclinic.exceptions.PetNotFoundException;
+import com.tecsup.petclinic.exceptions.VersionConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Parallel writers patching the same pet: every successful patch must be
+ * counted in the version, a writer with a stale version must get a conflict
+ * instead of silently overwriting (no lost update)
+ */
+@SpringBootTest
+@Slf4j
+public class PetPatchConcurrencyTest {
+
+    private static final int WRITERS = 4;
+
+    private static final int PATCHES_PER_WRITER = 10;
+
+    // Upper bound of the random pause before retrying after a conflict
+    private static final int MAX_BACKOFF_MS = 5;
+
+    @Autowired
+    private PetService petService;
+
+    @Test
+    public void testParallelPatchesLoseNoUpdate() throws Exception {
+
+        PetDTO pet = petService.create(PetDTO.builder()
+                .name("Concurrent")
+                .typeId(1)
+                .ownerId(1)
+                .birthDate("2020-05-20")
+                .build());
+        int initialVersion = petService.findById(pet.getId()).getVersion();
+
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            results.add(executor.submit(() -> {
+                start.await();
+                int applied = 0;
+                while (applied < PATCHES_PER_WRITER) {
+                    int version = petService.findVersion(pet.getId()).orElseThrow();
+                    try {
+                        petService.patch(pet.getId(), version,
+                                PetPatchDTO.builder().name("w" + writer + "-" + applied).build());
+                        applied++;
+                    } catch (VersionConflictException e) {
+                        conflicts.incrementAndGet();
+                        // Randomized so the losers do not all retry against the same version again
+                        Thread.sleep(ThreadLocalRandom.current().nextInt(1, MAX_BACKOFF_MS + 1));
+                    }
+                }
+                return applied;
+            }));
+        }
+
+        start.countDown();
+        int applied = 0;
+        for (Future<Integer> result : results) {
+            applied += result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int finalVersion = petService.findById(pet.getId()).getVersion();
+        log.info("applied: {}, conflicts: {}, version {} -> {}", applied, conflicts.get(), initialVersion, finalVersion);
+
+        assertEquals(WRITERS * PATCHES_PER_WRITER, applied);
+        assertEquals(initialVersion + applied, finalVersion);
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        try {
+            petService.delete(pet.getId());
+        } catch (PetNotFoundException e) {
+            // already gone
+        }
+    }
+}
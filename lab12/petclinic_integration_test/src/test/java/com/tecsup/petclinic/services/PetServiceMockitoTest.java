@@ -61,6 +61,33 @@ public class PetServiceMockitoTest {
 
     }
 
+    /**
+     * Repeated reads are served from the pet cache, an update invalidates it
+     */
+    @Test
+    public void testFindPetByIdIsCached() throws PetNotFoundException {
+
+        int PET_ID = 4242;
+        Pet petExpected = new Pet(PET_ID, "Cached", 1, 1, null);
+
+        Mockito.when(this.repository.findById(PET_ID))
+                .thenReturn(Optional.of(petExpected));
+
+        PetDTO first = this.petService.findById(PET_ID);
+        first.setName("changed by the caller");
+        PetDTO second = this.petService.findById(PET_ID);
+
+        assertEquals(petExpected.getName(), second.getName());
+        Mockito.verify(this.repository, Mockito.times(1)).findById(PET_ID);
+
+        Mockito.when(this.repository.save(Mockito.any(Pet.class)))
+                .thenReturn(petExpected);
+        this.petService.update(second);
+        this.petService.findById(PET_ID);
+
+        Mockito.verify(this.repository, Mockito.times(2)).findById(PET_ID);
+    }
+
     /**
      *
      */
@@ -87,12 +114,12 @@ public class PetServiceMockitoTest {
 
         int TYPE_ID = 5;
 
-        List<Pet> petsExpected = TObjectCreator.getPetsForFindByTypeId();
+        List<PetDTO> petsExpected = this.petMapper.mapToDtoList(TObjectCreator.getPetsForFindByTypeId());
 
-        Mockito.when(this.repository.findByTypeId(TYPE_ID))
+        Mockito.when(this.repository.findDtoByTypeId(TYPE_ID))
                 .thenReturn(petsExpected);
 
-        List<Pet> pets = this.petService.findByTypeId(TYPE_ID);
+        List<PetDTO> pets = this.petService.findByTypeId(TYPE_ID);
 
         assertEquals(petsExpected.size(), pets.size());
     }
@@ -105,12 +132,12 @@ public class PetServiceMockitoTest {
 
         int OWNER_ID = 10;
 
-        List<Pet> petsExpected = TObjectCreator.getPetsForFindByOwnerId();
+        List<PetDTO> petsExpected = this.petMapper.mapToDtoList(TObjectCreator.getPetsForFindByOwnerId());
 
-        Mockito.when(this.repository.findByOwnerId(OWNER_ID))
+        Mockito.when(this.repository.findDtoByOwnerId(OWNER_ID))
                 .thenReturn(petsExpected);
 
-        List<Pet> pets = this.petService.findByOwnerId(OWNER_ID);
+        List<PetDTO> pets = this.petService.findByOwnerId(OWNER_ID);
 
         assertEquals(petsExpected.size(), pets.size());
 
@@ -218,9 +245,8 @@ public class PetServiceMockitoTest {
 
         // ------------ Delete ---------------
 
-        Mockito.doNothing().when(this.repository).delete(newPetCreate);
-        Mockito.when(this.repository.findById(newPetCreate.getId()))
-                .thenReturn(Optional.of(newPetCreate));
+        Mockito.when(this.repository.deleteRowById(newPetCreate.getId()))
+                .thenReturn(1);
 
         try {
             this.petService.delete(petDTOCreate.getId());
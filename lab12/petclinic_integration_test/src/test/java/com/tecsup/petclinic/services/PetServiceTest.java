@@ -12,7 +12,6 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
-import com.tecsup.petclinic.entities.Pet;
 import com.tecsup.petclinic.exceptions.PetNotFoundException;
 
 import lombok.extern.slf4j.Slf4j;
@@ -64,7 +63,7 @@ public class PetServiceTest {
         int TYPE_ID = 5;
         int SIZE_EXPECTED = 2;
 
-        List<Pet> pets = this.petService.findByTypeId(TYPE_ID);
+        List<PetDTO> pets = this.petService.findByTypeId(TYPE_ID);
 
         assertEquals(SIZE_EXPECTED, pets.size());
     }
@@ -78,7 +77,7 @@ public class PetServiceTest {
         int OWNER_ID = 10;
         int SIZE_EXPECTED = 2;
 
-        List<Pet> pets = this.petService.findByOwnerId(OWNER_ID);
+        List<PetDTO> pets = this.petService.findByOwnerId(OWNER_ID);
 
         assertEquals(SIZE_EXPECTED, pets.size());
 
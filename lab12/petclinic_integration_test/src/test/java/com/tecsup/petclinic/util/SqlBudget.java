@@ -0,0 +1,24 @@
+package com.tecsup.petclinic.util;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the test when one of the requests it performs runs more SQL
+ * statements than {@link #value()}. Without requests, the test body itself
+ * is held to the budget.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlBudgetExtension.class)
+public @interface SqlBudget {
+
+    /**
+     * @return maximum number of statements per request
+     */
+    int value();
+}
@@ -0,0 +1,42 @@
+package com.tecsup.petclinic.util;
+
+import com.tecsup.petclinic.instrumentation.SqlStatementCounter;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Opens a statement counting scope around a {@link SqlBudget} test and checks
+ * the most expensive request against the budget
+ */
+public class SqlBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlBudgetExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementCounter.open());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        SqlStatementCounter.Scope scope = context.getStore(NAMESPACE)
+                .remove(context.getUniqueId(), SqlStatementCounter.Scope.class);
+        if (scope == null) {
+            return;
+        }
+        scope.close();
+
+        int budget = context.getTestMethod()
+                .flatMap(method -> AnnotationSupport.findAnnotation(method, SqlBudget.class))
+                .map(SqlBudget::value)
+                .orElse(Integer.MAX_VALUE);
+
+        assertTrue(scope.getMaxChildCount() <= budget,
+                () -> "SQL budget exceeded: " + scope.getMaxChildCount() + " statements (budget " + budget
+                        + "), repeated: " + scope.getMaxChildRepeatedStatements());
+    }
+}
@@ -0,0 +1,65 @@
+package com.tecsup.petclinic.webs;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reference data (types, specialties) is served from the second-level cache
+ * once it has been read
+ */
+@AutoConfigureMockMvc
+@SpringBootTest
+@Slf4j
+public class CacheStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager secondLevelCacheManager;
+
+    @Test
+    public void testReferenceDataIsCached() throws Exception {
+
+        for (int i = 0; i < 2; i++) {
+            this.mockMvc.perform(get("/types/4")).andExpect(status().isOk());
+            this.mockMvc.perform(get("/specialties/1")).andExpect(status().isOk());
+            this.mockMvc.perform(get("/types")).andExpect(status().isOk());
+        }
+
+        this.mockMvc.perform(get("/cache/stats"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'types')].hits", hasItem(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$[?(@.name == 'specialties')].hits", hasItem(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$[?(@.name == 'query-cache')].hits", hasItem(greaterThanOrEqualTo(1))));
+    }
+
+    @Test
+    public void testRegionsAreNotInTheJvmWideCacheManager() {
+
+        // Closing another context (e.g. a @DirtiesContext test) must not close these regions
+        CacheManager jvmDefault = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        assertNotSame(jvmDefault, secondLevelCacheManager);
+        assertTrue(StreamSupport.stream(secondLevelCacheManager.getCacheNames().spliterator(), false)
+                .anyMatch("types"::equals));
+    }
+}
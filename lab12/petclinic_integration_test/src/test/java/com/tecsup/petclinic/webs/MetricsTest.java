@@ -0,0 +1,65 @@
+package com.tecsup.petclinic.webs;
+
+import com.tecsup.petclinic.instrumentation.MetricsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Timers recorded for a request, tagged by outcome
+ */
+@AutoConfigureMockMvc
+@SpringBootTest
+public class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    public void testNotFoundIsTaggedApart() throws Exception {
+
+        this.mockMvc.perform(get("/pets/1000"))
+                .andExpect(status().isNotFound());
+
+        Timer service = registry.find(MetricsConfig.SERVICE_TIMER)
+                .tag("method", "findById")
+                .tag("exception", "PetNotFoundException")
+                .tag(MetricsConfig.OUTCOME_TAG, "NOT_FOUND")
+                .timer();
+        assertNotNull(service);
+        assertTrue(service.count() >= 1);
+
+        Timer http = registry.find("http.server.requests")
+                .tag("uri", "/pets/{id}")
+                .tag("status", "404")
+                .timer();
+        assertNotNull(http);
+        assertTrue(http.count() >= 1);
+    }
+
+    @Test
+    public void testSuccessIsTagged() throws Exception {
+
+        this.mockMvc.perform(get("/pets/1"))
+                .andExpect(status().isOk());
+
+        Timer service = registry.find(MetricsConfig.SERVICE_TIMER)
+                .tag("method", "findById")
+                .tag(MetricsConfig.OUTCOME_TAG, "SUCCESS")
+                .timer();
+        assertNotNull(service);
+        assertTrue(service.count() >= 1);
+    }
+}
@@ -55,12 +55,66 @@ public class OwnerControllerTest {
                 .andExpect(jsonPath("$.lastName", is(LAST_NAME)));
     }
 
+    @Test
+    public void testFindOwnerNotModified() throws Exception {
+        String etag = this.mockMvc.perform(get("/owners/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc.perform(get("/owners/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     public void testFindOwnerKO() throws Exception {
         mockMvc.perform(get("/owners/999"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    public void testSearchOwners() throws Exception {
+
+        this.mockMvc.perform(get("/owners/search").param("q", "george fr"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].lastName", is("Franklin")));
+
+        this.mockMvc.perform(get("/owners/search").param("q", "fran").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testSearchFollowsCreateAndDelete() throws Exception {
+
+        Owner newOwner = new Owner();
+        newOwner.setFirstName("Zyanya");
+        newOwner.setLastName("Quenallata");
+        newOwner.setAddress("12 Search St");
+        newOwner.setCity("Puno");
+        newOwner.setTelephone("951000111");
+
+        String response = mockMvc.perform(post("/owners")
+                        .content(om.writeValueAsString(newOwner))
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = JsonPath.parse(response).read("$.id", Long.class);
+
+        mockMvc.perform(get("/owners/search").param("q", "quenall"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(1)))
+                .andExpect(jsonPath("$[0].id", is(id.intValue())));
+
+        mockMvc.perform(delete("/owners/" + id))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/owners/search").param("q", "quenall"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(0)));
+    }
+
     @Test
     public void testCreateOwner() throws Exception {
         String FIRST_NAME = "John";
@@ -2,7 +2,11 @@ package com.tecsup.petclinic.webs;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
+import com.tecsup.petclinic.dtos.PageDTO;
 import com.tecsup.petclinic.dtos.PetDTO;
+import com.tecsup.petclinic.dtos.PetPatchDTO;
+import com.tecsup.petclinic.instrumentation.SqlBudgetProperties;
+import com.tecsup.petclinic.util.SqlBudget;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +17,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +39,7 @@ public class PetControllerTest {
 	private MockMvc mockMvc;
 	
 	@Test
+	@SqlBudget(2)
 	public void testFindAllPets() throws Exception {
 
 		//int NRO_RECORD = 73;
@@ -44,12 +53,47 @@ public class PetControllerTest {
 	}
 	
 
+	/**
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	@SqlBudget(2)
+	public void testFindAllPetsByPages() throws Exception {
+
+		final int PAGE_SIZE = 5;
+
+		String cursor = this.mockMvc.perform(get("/pets").param("size", String.valueOf(PAGE_SIZE)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(PAGE_SIZE)))
+				.andExpect(jsonPath("$[0].id", is(1)))
+				.andExpect(header().exists(PageDTO.NEXT_CURSOR_HEADER))
+				.andReturn().getResponse().getHeader(PageDTO.NEXT_CURSOR_HEADER);
+
+		this.mockMvc.perform(get("/pets").param("size", String.valueOf(PAGE_SIZE)).param("cursor", cursor))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(PAGE_SIZE)))
+				.andExpect(jsonPath("$[0].id", is(PAGE_SIZE + 1)));
+	}
+
+	/**
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testFindAllPetsInvalidCursor() throws Exception {
+
+		this.mockMvc.perform(get("/pets").param("cursor", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
 	/**
 	 * 
 	 * @throws Exception
 	 * 
 	 */
 	@Test
+	@SqlBudget(2)
 	public void testFindPetOK() throws Exception {
 
 		String PET_NAME = "Leo";
@@ -61,6 +105,7 @@ public class PetControllerTest {
 				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
 				.andDo(print())
 				.andExpect(status().isOk())
+				.andExpect(header().exists(SqlBudgetProperties.HEADER))
 				.andExpect(jsonPath("$.id", is(1)))
 				.andExpect(jsonPath("$.name", is(PET_NAME)))
 				.andExpect(jsonPath("$.typeId", is(TYPE_ID)))
@@ -73,6 +118,197 @@ public class PetControllerTest {
 	 * @throws Exception
 	 */
 	@Test
+	@SqlBudget(1)
+	public void testFindPetNotModified() throws Exception {
+
+		String etag = this.mockMvc.perform(get("/pets/1"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		this.mockMvc.perform(get("/pets/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().string(""));
+	}
+
+	/**
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testUpdatePetPreconditionFailed() throws Exception {
+
+		PetDTO newPetTO = PetDTO.builder()
+				.name("Beethoven6")
+				.typeId(1)
+				.ownerId(1)
+				.birthDate("2020-05-20")
+				.build();
+
+		String response = mockMvc.perform(post("/pets")
+						.content(om.writeValueAsString(newPetTO))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		Integer id = JsonPath.parse(response).read("$.id");
+
+		String etag = mockMvc.perform(get("/pets/" + id))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		newPetTO.setName("Beethoven7");
+
+		// First writer wins and gets a new ETag
+		String newEtag = mockMvc.perform(put("/pets/" + id)
+						.content(om.writeValueAsString(newPetTO))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		// Second writer still holds the old ETag
+		mockMvc.perform(put("/pets/" + id)
+						.content(om.writeValueAsString(newPetTO))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isPreconditionFailed());
+
+		mockMvc.perform(get("/pets/" + id).header(HttpHeaders.IF_NONE_MATCH, newEtag))
+				.andExpect(status().isNotModified());
+
+		mockMvc.perform(delete("/pets/" + id))
+				.andExpect(status().isOk());
+	}
+
+	/**
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testPatchPet() throws Exception {
+
+		PetDTO newPetTO = PetDTO.builder()
+				.name("Beethoven8")
+				.typeId(1)
+				.ownerId(1)
+				.birthDate("2020-05-20")
+				.build();
+
+		String response = mockMvc.perform(post("/pets")
+						.content(om.writeValueAsString(newPetTO))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getContentAsString();
+		Integer id = JsonPath.parse(response).read("$.id");
+
+		String etag = mockMvc.perform(get("/pets/" + id))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		PetPatchDTO patch = PetPatchDTO.builder().name("Beethoven9").build();
+
+		// No If-Match, no write
+		mockMvc.perform(patch("/pets/" + id)
+						.content(om.writeValueAsString(patch))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON))
+				.andExpect(status().isPreconditionRequired());
+
+		String newEtag = mockMvc.perform(patch("/pets/" + id)
+						.content(om.writeValueAsString(patch))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isNoContent())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		// Stale version
+		mockMvc.perform(patch("/pets/" + id)
+						.content(om.writeValueAsString(patch))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isConflict())
+				.andExpect(header().string(HttpHeaders.ETAG, newEtag));
+
+		// Only the name changed
+		mockMvc.perform(get("/pets/" + id))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, newEtag))
+				.andExpect(jsonPath("$.name", is("Beethoven9")))
+				.andExpect(jsonPath("$.typeId", is(1)))
+				.andExpect(jsonPath("$.birthDate", is("2020-05-20")));
+
+		mockMvc.perform(patch("/pets/666")
+						.content(om.writeValueAsString(patch))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isNotFound());
+
+		mockMvc.perform(delete("/pets/" + id))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	public void testInvalidBirthDate() throws Exception {
+
+		PetDTO newPetTO = PetDTO.builder()
+				.name("BadDate")
+				.typeId(1)
+				.ownerId(1)
+				.birthDate("20/05/2020")
+				.build();
+
+		mockMvc.perform(post("/pets")
+						.content(om.writeValueAsString(newPetTO))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+
+		String etag = mockMvc.perform(get("/pets/1"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		// Not read as "unchanged": the PATCH is rejected
+		mockMvc.perform(patch("/pets/1")
+						.content(om.writeValueAsString(PetPatchDTO.builder().birthDate("2020-13-45").build()))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(get("/pets/1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+	}
+
+	@Test
+	public void testPatchPetUnknownOwnerOrType() throws Exception {
+
+		String etag = mockMvc.perform(get("/pets/1"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		// Foreign keys checked by the database: 422, and the pet is left as it was
+		mockMvc.perform(patch("/pets/1")
+						.content(om.writeValueAsString(PetPatchDTO.builder().ownerId(999999).build()))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isUnprocessableEntity());
+
+		mockMvc.perform(patch("/pets/1")
+						.content(om.writeValueAsString(PetPatchDTO.builder().typeId(999999).build()))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+						.header(HttpHeaders.IF_MATCH, etag))
+				.andExpect(status().isUnprocessableEntity());
+
+		mockMvc.perform(get("/pets/1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+	}
+
+	/**
+	 *
+	 * @throws Exception
+	 */
+	@Test
 	public void testFindPetKO() throws Exception {
 
 		mockMvc.perform(get("/pets/666"))
@@ -112,6 +348,45 @@ public class PetControllerTest {
 	}
 
 
+	/**
+	 * More rows than the JDBC batch size, so at least one flush/clear happens
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testCreatePetsBatch() throws Exception {
+
+		int NRO_RECORD = 60;
+		int TYPE_ID = 1;
+		int OWNER_ID = 1;
+
+		List<PetDTO> newPetTOs = new ArrayList<>();
+		for (int i = 0; i < NRO_RECORD; i++) {
+			newPetTOs.add(PetDTO.builder()
+					.name("Batch" + i)
+					.typeId(TYPE_ID)
+					.ownerId(OWNER_ID)
+					.birthDate("2020-05-20")
+					.build());
+		}
+
+		String response = this.mockMvc.perform(post("/pets/batch")
+						.content(om.writeValueAsString(newPetTOs))
+						.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$", hasSize(NRO_RECORD)))
+				.andExpect(jsonPath("$[0].name", is("Batch0")))
+				.andExpect(jsonPath("$[" + (NRO_RECORD - 1) + "].name", is("Batch" + (NRO_RECORD - 1))))
+				.andReturn().getResponse().getContentAsString();
+
+		List<Integer> ids = JsonPath.parse(response).read("$[*].id");
+
+		for (Integer id : ids) {
+			mockMvc.perform(delete("/pets/" + id))
+					.andExpect(status().isOk());
+		}
+	}
+
 	/**
      * 
      * @throws Exception
@@ -148,6 +423,7 @@ public class PetControllerTest {
 	}
 
 	@Test
+	@SqlBudget(1)
 	public void testDeletePetKO() throws Exception {
 
 		mockMvc.perform(delete("/pets/" + "1000" ))
@@ -0,0 +1,89 @@
+package com.tecsup.petclinic.webs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tecsup.petclinic.dtos.VisitDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * NDJSON visit streams of the reactive profile, read over R2DBC from the rows
+ * data.sql loaded through JDBC. Own in-memory database; the streams only read,
+ * so the context is left cached rather than dirtied.
+ */
+@AutoConfigureMockMvc
+@ActiveProfiles({"h2", "reactive"})
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=MODE=MySQL;DB_CLOSE_DELAY=-1"})
+public class ReactiveVisitControllerTest {
+
+    private static final ObjectMapper om = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testStreamAllVisits() throws Exception {
+
+        List<VisitDTO> visits = stream("/reactive/visits");
+
+        assertEquals(6, visits.size());
+        assertEquals(1L, visits.get(0).getId());
+        assertEquals("2010-03-04", visits.get(0).getVisitDate());
+        assertEquals(7, visits.get(0).getPetId());
+    }
+
+    @Test
+    public void testResumeAfterIdWithLimit() throws Exception {
+
+        List<VisitDTO> visits = stream("/reactive/visits?after=2&limit=2");
+
+        assertEquals(List.of(3L, 4L), visits.stream().map(VisitDTO::getId).toList());
+    }
+
+    @Test
+    public void testPetHistoryOldestFirst() throws Exception {
+
+        List<VisitDTO> visits = stream("/reactive/pets/7/visits");
+
+        assertEquals(List.of(4L, 1L), visits.stream().map(VisitDTO::getId).toList());
+    }
+
+    @Test
+    public void testUnknownPetHasNoHistory() throws Exception {
+
+        assertEquals(0, stream("/reactive/pets/999999/visits").size());
+    }
+
+    private List<VisitDTO> stream(String path) throws Exception {
+
+        MvcResult started = this.mockMvc.perform(get(path))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = this.mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<VisitDTO> visits = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isBlank()) {
+                visits.add(om.readValue(line, VisitDTO.class));
+            }
+        }
+        return visits;
+    }
+}
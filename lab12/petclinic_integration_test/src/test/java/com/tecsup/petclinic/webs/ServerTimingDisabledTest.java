@@ -0,0 +1,42 @@
+package com.tecsup.petclinic.webs;
+
+import com.tecsup.petclinic.instrumentation.ServerTiming;
+import com.tecsup.petclinic.instrumentation.ServerTimingJacksonConverter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With petclinic.server-timing.enabled off (the default outside the h2 profile)
+ * Spring Boot's JSON converter is used and no timings are returned
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "petclinic.server-timing.enabled=false")
+@DirtiesContext
+public class ServerTimingDisabledTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter;
+
+    @Test
+    public void testNoHeaderAndNoBuffering() throws Exception {
+
+        assertFalse(mappingJackson2HttpMessageConverter instanceof ServerTimingJacksonConverter);
+
+        this.mockMvc.perform(get("/vets"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ServerTiming.HEADER));
+    }
+}
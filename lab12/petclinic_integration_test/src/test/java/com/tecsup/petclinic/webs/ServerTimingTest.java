@@ -0,0 +1,63 @@
+package com.tecsup.petclinic.webs;
+
+import com.tecsup.petclinic.instrumentation.ServerTiming;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Server-Timing breakdown on the collection endpoints of the six controllers
+ */
+@AutoConfigureMockMvc
+@SpringBootTest
+public class ServerTimingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testListsReportDbAndSerialization() throws Exception {
+
+        for (String path : new String[]{"/pets", "/owners", "/vets", "/visits", "/specialties", "/types"}) {
+            this.mockMvc.perform(get(path))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(ServerTiming.HEADER, allOf(
+                            matchesPattern("db;dur=\\d+\\.\\d{2};desc=\"\\d+ calls?\", .*"),
+                            containsString("serialization;dur="),
+                            containsString("app;dur="),
+                            containsString("total;dur="))));
+        }
+    }
+
+    @Test
+    public void testEntityListsReportMapping() throws Exception {
+
+        // pets, owners and visits pages are DTO projections, these three go through a mapper
+        for (String path : new String[]{"/vets", "/specialties", "/types"}) {
+            this.mockMvc.perform(get(path))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(ServerTiming.HEADER, containsString("mapping;dur=")));
+        }
+    }
+
+    @Test
+    public void testResponseWithoutBodyGetsTheHeaderToo() throws Exception {
+
+        this.mockMvc.perform(delete("/pets/999999"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(ServerTiming.HEADER, allOf(
+                        containsString("total;dur="),
+                        not(containsString("serialization")))));
+    }
+}
@@ -0,0 +1,103 @@
+package com.tecsup.petclinic.webs;
+
+import com.tecsup.petclinic.entities.Specialty;
+import com.tecsup.petclinic.entities.Vet;
+import com.tecsup.petclinic.exceptions.VetNotFoundException;
+import com.tecsup.petclinic.services.SpecialtyService;
+import com.tecsup.petclinic.services.VetService;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The vet directory must cost a bounded number of SQL statements,
+ * whatever the number of vets and specialties (no N+1 on Vet.specialties)
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Slf4j
+public class VetControllerQueryCountTest {
+
+    // One query for the page of vets, one for the specialties of the whole page
+    private static final long MAX_STATEMENTS = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private VetService vetService;
+
+    @Autowired
+    private SpecialtyService specialtyService;
+
+    @Test
+    public void testFindAllVetsStatementCountIsConstant() throws Exception {
+
+        int NEW_VETS = 10;
+
+        long statementsBefore = countStatementsForVetDirectory();
+
+        Set<Specialty> specialties = new HashSet<>();
+        specialties.add(specialtyService.findById(1));
+        specialties.add(specialtyService.findById(2));
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < NEW_VETS; i++) {
+            Vet vet = new Vet();
+            vet.setFirstName("QueryCount" + i);
+            vet.setLastName("Test");
+            vet = vetService.create(vet);
+            vet.setSpecialties(specialties);
+            vetService.update(vet);
+            ids.add(vet.getId());
+        }
+
+        long statementsAfter = countStatementsForVetDirectory();
+
+        log.info("statements before: {}, after {} more vets: {}", statementsBefore, NEW_VETS, statementsAfter);
+
+        assertTrue(statementsBefore <= MAX_STATEMENTS);
+        assertTrue(statementsAfter <= statementsBefore);
+
+        for (Integer id : ids) {
+            try {
+                vetService.delete(id);
+            } catch (VetNotFoundException e) {
+                // already gone
+            }
+        }
+    }
+
+    private long countStatementsForVetDirectory() throws Exception {
+        // Measure the cold path: Vet.specialties is also in the second-level cache, and
+        // the JPA evictAll() only clears the entity regions, not the collection ones
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/vets"))
+                .andExpect(status().isOk());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -2,6 +2,7 @@ package com.tecsup.petclinic.webs;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jayway.jsonpath.JsonPath;
+import com.tecsup.petclinic.dtos.PageDTO;
 import com.tecsup.petclinic.dtos.VisitDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
@@ -11,9 +12,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.List;
+
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,6 +45,36 @@ public class VisitControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    public void testFindAllVisitsByPages() throws Exception {
+        String cursor = this.mockMvc.perform(get("/visits").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].visitDate", is("2008-09-04")))
+                .andExpect(jsonPath("$[1].visitDate", is("2009-06-04")))
+                .andExpect(header().exists(PageDTO.NEXT_CURSOR_HEADER))
+                .andReturn().getResponse().getHeader(PageDTO.NEXT_CURSOR_HEADER);
+
+        this.mockMvc.perform(get("/visits").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].visitDate", is("2010-03-04")));
+    }
+
+    @Test
+    public void testExportVisits() throws Exception {
+        MvcResult asyncResult = this.mockMvc.perform(get("/visits/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = this.mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertTrue(lines.length >= 6);
+        assertEquals(1, (Integer) JsonPath.parse(lines[0]).read("$.id"));
+        assertEquals("2010-03-04", JsonPath.parse(lines[0]).read("$.visitDate"));
+    }
+
     @Test
     public void testFindVisitOK() throws Exception {
         String VISIT_DATE = "2010-03-04";
@@ -79,6 +115,23 @@ public class VisitControllerTest {
                 .andExpect(jsonPath("$.petId", is(PET_ID)));
     }
 
+    @Test
+    public void testIngestVisits() throws Exception {
+        List<VisitDTO> visits = List.of(
+                VisitDTO.builder().visitDate("2024-04-01").description("IngestOK").petId(1).build(),
+                VisitDTO.builder().visitDate("2024-04-02").description("IngestUnknownPet").petId(999).build(),
+                VisitDTO.builder().visitDate("not-a-date").description("IngestBadDate").petId(1).build());
+
+        this.mockMvc.perform(post("/visits/batch")
+                        .content(om.writeValueAsString(visits))
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(1)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)))
+                .andExpect(jsonPath("$.errors[1].index", is(2)));
+    }
+
     @Test
     public void testDeleteVisit() throws Exception {
         String VISIT_DATE = "2024-02-20";